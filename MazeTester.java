@@ -30,13 +30,13 @@ class MazeTester {
 	 */
 	public static void usage(String progName) {
 		System.err.println(progName + ": [input fileName] <visualize maze>");
-		System.err.println("<visualize maze> = <y | n>");
+		System.err.println("<visualize maze> = <y | n | png | tiles>");
 		System.exit(1);
 	} // end of usage()
 
 	/**
 	 * Main function of tester.
-	 * @param args Two arguments which are input filename and "y/n" indicating whether to visualize the maze. 
+	 * @param args Two arguments which are input filename and "y/n" indicating whether to visualize the maze, or "png" to draw it into a PNG file without a window, or "tiles" to draw it into a pyramid of PNG tiles.
 	 */
 	public static void main(String[] args) {
 		// read command line arguments
@@ -47,8 +47,10 @@ class MazeTester {
 		
 		String fName = args[0];
 		
-		// flag to indicate whether we visualise maze or not
+		// flag to indicate whether we visualise maze or not, and whether we draw it into a PNG file instead
 		boolean isVisu = false;
+		boolean isPng = false;
+		boolean isTiles = false;
 		// note that drawFtPrt(Cell) need to be called for validating the solution
 		switch (args[1]) {
 		case "y":
@@ -57,6 +59,15 @@ class MazeTester {
 		case "n":
 			isVisu = false;
 			break;
+		case "png":
+			isPng = true;
+			// no window is ever opened, so it runs on a server without a display
+			System.setProperty("java.awt.headless", "true");
+			break;
+		case "tiles":
+			isTiles = true;
+			System.setProperty("java.awt.headless", "true");
+			break;
 		default:
 			System.err.println("Incorrect argument value.");
 			usage(progName);
@@ -149,6 +160,23 @@ class MazeTester {
 		case "growingTree":
 			mazeGen = new GrowingTreeGenerator();
 			break;
+		case "kruskal":
+			mazeGen = new KruskalGenerator();
+			break;
+		case "eller":
+			// Eller's algorithm works row by row on square cells and knows nothing of tunnels
+			if (!mazeType.equals("normal")) {
+				System.err.println("Eller's algorithm only generates normal mazes.");
+				usage(progName);
+			}
+			mazeGen = new EllerGenerator();
+			break;
+		case "wilson":
+			mazeGen = new WilsonGenerator();
+			break;
+		case "parallelRecurBack":
+			mazeGen = new ParallelTileGenerator(RecursiveBacktrackerGenerator::new, 8, System.nanoTime());
+			break;
 		default:
 			System.err.println("Unknown maze generator name.");
 			usage(progName);
@@ -180,9 +208,26 @@ class MazeTester {
 			case "biDirrecurBack":
 				mazeSolver = new BiDirectionalRecursiveBacktrackerSolver();
 				break;
+			case "bfs":
+				mazeSolver = new BFSSolver();
+				break;
+			case "biDirBFS":
+				mazeSolver = new BiDirectionalBFSSolver();
+				break;
+			case "parallelBFS":
+				mazeSolver = new ParallelBFSSolver();
+				break;
+			case "astar":
+				mazeSolver = new AStarSolver();
+				break;
+			case "junction":
+				mazeSolver = new JunctionSolver();
+				break;
             // sample solver to help you get started
             case "sample":
                 mazeSolver = new SampleSolver();
+                // the sample solver works on the Cell/Wall view
+                maze.buildMap();
                 break;
 			// no solver
 			case "none":
@@ -193,13 +238,15 @@ class MazeTester {
 			}
 
 			if (mazeSolver != null) {
-				mazeSolver.solveMaze(maze);
+				SolveResult result = mazeSolver.solve(maze);
 				outStream.println(mazeSolver.getClass().getSimpleName() + " is solving the maze.");
 				// check if solver can get out of maze
 				if (mazeSolver.isSolved()) {
 					outStream.println("The maze has been solved!");
 					// display number of cells visited for solver
 					outStream.println("Number of cells visited = " + mazeSolver.cellsExplored());
+					// display time taken by the solver
+					outStream.println("Time taken = " + result.nanos() / 1000000 + " ms");
 					// show results from validation
 					outStream.println("Validation result:");
 					boolean isValid = maze.validate();
@@ -209,5 +256,30 @@ class MazeTester {
 				}
 			}
 		}
+
+		// draw the maze and its footprints into a PNG file, or a directory of tiles, next to the input file
+		int dot = fName.lastIndexOf('.');
+		String baseName = dot > fName.lastIndexOf(File.separatorChar) ? fName.substring(0, dot) : fName;
+		if (isPng) {
+			File fout = new File(baseName + ".png");
+			try {
+				new PngRenderer(maze, Math.max(2, Math.min(30, 1800.0 / Math.max(rowNum, colNum)))).write(fout);
+				outStream.println("The maze is drawn in " + fout.getPath());
+			} catch (IOException e) {
+				System.err.println("Cannot write " + fout.getPath() + ": " + e.getMessage());
+			}
+		}
+		if (isTiles) {
+			File dout = new File(baseName + "_tiles");
+			try {
+				TilePyramid pyramid = new TilePyramid(maze, dout);
+				// the tiles of an earlier maze are stale
+				pyramid.invalidate(0, 0, rowNum, colNum);
+				pyramid.renderAll();
+				outStream.println("The maze is drawn in " + pyramid.numLevels() + " levels of tiles in " + dout.getPath());
+			} catch (IOException e) {
+				System.err.println("Cannot write " + dout.getPath() + ": " + e.getMessage());
+			}
+		}
 	} // end of main()
 } // end of class MazeTester
@@ -0,0 +1,287 @@
+package maze;
+
+/**
+ * Cells recorded by drawFtPrt(), joined as they are recorded, to validate a solution.
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ *
+ * A recorded cell is joined in a union-find with its recorded neighbours through open walls and
+ * its tunnel, so whether the exit is joined to the entrance and whether every recorded cell is
+ * joined to them is known at any time in nearly constant time, with no pass over the maze.
+ * The footprints themselves are a bitmap of one bit per cell. The union-find is kept for the
+ * recorded cells only, in an open addressing table whose slot is the node of the cell, grown as
+ * cells are recorded, so a solution walking a small part of a large maze costs a few bytes per
+ * cell walked and nothing per cell of the maze. Once the table would outgrow five bytes per cell
+ * of the maze, it becomes dense: the slot of a cell is its id, and the keys are dropped.
+ */
+public class Footprints {
+	/**
+	 * the maze walked
+	 */
+	protected Maze maze;
+
+	/**
+	 * one bit per cell, set if the cell is recorded
+	 */
+	protected long recorded[];
+
+	/**
+	 * keys[s] is the id plus one of the cell of slot s, 0 for an empty slot, null once dense
+	 */
+	protected int keys[];
+
+	/**
+	 * parent slot of every used slot, roots are their own parents
+	 */
+	protected int parent[];
+
+	/**
+	 * upper bound of the height of the tree under each root
+	 */
+	protected byte rank[];
+
+	/**
+	 * number of cells recorded and of sets they form
+	 */
+	protected int numRecorded;
+	protected int numComponents;
+
+	/**
+	 * construct an empty record
+	 * @param maze The maze walked.
+	 */
+	public Footprints(Maze maze) {
+		this.maze = maze;
+	} // end of Footprints()
+
+
+	/**
+	 * Record a cell and join it with its recorded neighbours.
+	 * @param id Id of the cell.
+	 */
+	public void record(int id) {
+		if (recorded == null) {
+			recorded = new long[(maze.sizeR * maze.stride + 63) >>> 6];
+			keys = new int[64];
+			parent = new int[64];
+			rank = new byte[64];
+		}
+		if (isRecorded(id))
+			return;
+		recorded[id >>> 6] |= 1L << id;
+		numRecorded++;
+		numComponents++;
+
+		// at most three quarters of the table are used
+		if (keys != null && 4L * numRecorded > 3L * keys.length)
+			grow();
+		int slot = insert(id);
+		parent[slot] = slot;
+
+		int next = maze.tunnelTo(id);
+		if (next >= 0 && isRecorded(next))
+			union(slot, slotOf(next));
+		for (int k : maze.dirs) {
+			next = maze.neighbor(id, k);
+			if (next >= 0 && isRecorded(next) && maze.isOpen(id, k))
+				union(slot, slotOf(next));
+		}
+	} // end of record()
+
+
+	/**
+	 * Whether a cell is recorded.
+	 * @param id Id of the cell.
+	 * @return True if recorded. Otherwise false.
+	 */
+	public boolean isRecorded(int id) {
+		return recorded != null && (recorded[id >>> 6] & 1L << id) != 0;
+	} // end of isRecorded()
+
+
+	/**
+	 * Number of cells recorded.
+	 * @return The number of cells.
+	 */
+	public int numRecorded() {
+		return numRecorded;
+	} // end of numRecorded()
+
+
+	/**
+	 * Number of sets of recorded cells joined together.
+	 * @return The number of sets.
+	 */
+	public int numComponents() {
+		return numComponents;
+	} // end of numComponents()
+
+
+	/**
+	 * Whether two recorded cells are joined through recorded cells.
+	 * @param a Id of a cell.
+	 * @param b Id of another cell.
+	 * @return True if joined. Otherwise false.
+	 */
+	public boolean isJoined(int a, int b) {
+		return isRecorded(a) && isRecorded(b) && find(slotOf(a)) == find(slotOf(b));
+	} // end of isJoined()
+
+
+	/**
+	 * Show validation result of whether the maze is solved: the exit is joined to the entrance and
+	 * every recorded cell is joined to them. The walk is taken to start from the entrance.
+	 * @return True if valid. Otherwise false.
+	 */
+	public boolean validate() {
+		record(maze.entranceId);
+
+		if (!isJoined(maze.entranceId, maze.exitId)) {
+			System.out.println("[Validation] Exit is not reached.");
+			return false;
+		}
+		if (numComponents > 1) {
+			System.out.println("[Validation] Visited cell not reachable.");
+			return false;
+		}
+		System.out.println("[Validation] Number of cells visited = " + numRecorded);
+		System.out.println("[Validation] Path length of the solution = " + pathLength());
+		return true;
+	} // end of validate()
+
+
+	/**
+	 * Number of cells of the shortest path from the entrance to the exit through recorded cells,
+	 * found by a BFS over the recorded cells only. It is run once the solution is known to be valid.
+	 * @return The number of cells, entrance and exit included.
+	 */
+	protected int pathLength() {
+		int steps[] = new int[parent.length];
+		int queue[] = new int[numRecorded];
+		int head = 0, tail = 0;
+		queue[tail++] = maze.entranceId;
+		steps[slotOf(maze.entranceId)] = 1;
+		while (head < tail) {
+			int curr = queue[head++];
+			int step = steps[slotOf(curr)];
+			if (curr == maze.exitId)
+				return step;
+			for (int i = -1; i < maze.dirs.length; i++) {
+				int next = i < 0 ? maze.tunnelTo(curr) : maze.isOpen(curr, maze.dirs[i]) ? maze.neighbor(curr, maze.dirs[i]) : -1;
+				if (next < 0 || !isRecorded(next) || steps[slotOf(next)] != 0)
+					continue;
+				steps[slotOf(next)] = step + 1;
+				queue[tail++] = next;
+			}
+		}
+		return 0;
+	} // end of pathLength()
+
+
+	/**
+	 * First slot to probe for a cell.
+	 * @param id Id of the cell.
+	 * @return The slot.
+	 */
+	protected int hash(int id) {
+		int h = id * 0x9E3779B9;
+		return (h ^ h >>> 16) & (keys.length - 1);
+	} // end of hash()
+
+
+	/**
+	 * Slot of a recorded cell.
+	 * @param id Id of the cell.
+	 * @return The slot.
+	 */
+	protected int slotOf(int id) {
+		if (keys == null)
+			return id;
+		int slot = hash(id);
+		while (keys[slot] != id + 1)
+			slot = (slot + 1) & (keys.length - 1);
+		return slot;
+	} // end of slotOf()
+
+
+	/**
+	 * Put a cell in an empty slot.
+	 * @param id Id of the cell.
+	 * @return The slot.
+	 */
+	protected int insert(int id) {
+		if (keys == null)
+			return id;
+		int slot = hash(id);
+		while (keys[slot] != 0)
+			slot = (slot + 1) & (keys.length - 1);
+		keys[slot] = id + 1;
+		return slot;
+	} // end of insert()
+
+
+	/**
+	 * Double the table, or make it dense if the doubled table would outgrow five bytes per cell of
+	 * the maze, moving every cell to its new slot and its parent with it.
+	 */
+	protected void grow() {
+		int oldKeys[] = keys;
+		int oldParent[] = parent;
+		byte oldRank[] = rank;
+		int numCells = maze.sizeR * maze.stride;
+		// a slot of the table costs nine bytes, keys, parent and rank
+		keys = 18L * oldKeys.length < 5L * numCells ? new int[2 * oldKeys.length] : null;
+		parent = new int[keys != null ? keys.length : numCells];
+		rank = new byte[parent.length];
+
+		int moved[] = new int[oldKeys.length];
+		for (int s = 0; s < oldKeys.length; s++) {
+			if (oldKeys[s] != 0) {
+				moved[s] = insert(oldKeys[s] - 1);
+				rank[moved[s]] = oldRank[s];
+			}
+		}
+		for (int s = 0; s < oldKeys.length; s++) {
+			if (oldKeys[s] != 0)
+				parent[moved[s]] = moved[oldParent[s]];
+		}
+	} // end of grow()
+
+
+	/**
+	 * Find the root of a slot, halving the path on the way.
+	 * @param x The slot.
+	 * @return The slot of the root.
+	 */
+	protected int find(int x) {
+		while (parent[x] != x) {
+			parent[x] = parent[parent[x]];
+			x = parent[x];
+		}
+		return x;
+	} // end of find()
+
+
+	/**
+	 * Merge the sets of two slots, by rank.
+	 * @param a A slot.
+	 * @param b Another slot.
+	 */
+	protected void union(int a, int b) {
+		a = find(a);
+		b = find(b);
+		if (a == b)
+			return;
+		if (rank[a] < rank[b]) {
+			int t = a;
+			a = b;
+			b = t;
+		}
+		parent[b] = a;
+		if (rank[a] == rank[b])
+			rank[a]++;
+		numComponents--;
+	} // end of union()
+
+} // end of class Footprints
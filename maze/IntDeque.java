@@ -0,0 +1,100 @@
+package maze;
+
+/**
+ * First in, first out queue of ints in a ring buffer, the queue of the BFS solvers and of PathIndex.
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ *
+ * Elements are added at the back by addLast() and taken from the front by removeFirst(), both in
+ * O(1). The buffer is a power of two sized int array, doubled when full, so no object is allocated
+ * per element.
+ */
+public class IntDeque {
+	/**
+	 * the elements, from head, in a power of two sized buffer
+	 */
+	protected int elements[];
+	protected int head;
+	protected int size;
+
+	/**
+	 * construct an empty queue
+	 */
+	public IntDeque() {
+		this(16);
+	} // end of IntDeque()
+
+
+	/**
+	 * construct an empty queue
+	 * @param capacity Expected number of elements.
+	 */
+	public IntDeque(int capacity) {
+		elements = new int[Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1];
+	} // end of IntDeque()
+
+
+	/**
+	 * Number of elements.
+	 * @return The number of elements.
+	 */
+	public int size() {
+		return size;
+	} // end of size()
+
+
+	/**
+	 * Whether the queue is empty.
+	 * @return True if there is no element. Otherwise false.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	} // end of isEmpty()
+
+
+	/**
+	 * Add an element at the back.
+	 * @param x The element.
+	 */
+	public void addLast(int x) {
+		if (size == elements.length)
+			grow();
+		elements[(head + size++) & (elements.length - 1)] = x;
+	} // end of addLast()
+
+
+	/**
+	 * Remove the front element.
+	 * @return The element.
+	 */
+	public int removeFirst() {
+		int x = elements[head];
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		return x;
+	} // end of removeFirst()
+
+
+	/**
+	 * Remove all the elements.
+	 */
+	public void clear() {
+		head = 0;
+		size = 0;
+	} // end of clear()
+
+
+	/**
+	 * Double the buffer, moving the elements to its start.
+	 */
+	protected void grow() {
+		int bigger[] = new int[elements.length * 2];
+		int first = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, bigger, 0, first);
+		System.arraycopy(elements, 0, bigger, first, size - first);
+		elements = bigger;
+		head = 0;
+	} // end of grow()
+
+} // end of class IntDeque
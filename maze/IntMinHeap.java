@@ -0,0 +1,155 @@
+package maze;
+
+import java.util.*;
+
+/**
+ * Binary min-heap of int ids with int keys, indexed so that the key of an id can be decreased.
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ *
+ * Ids are from 0 to capacity - 1, e.g. cell ids. The heap, the position of every id in it and the
+ * keys are primitive arrays allocated once, so no object is allocated per operation.
+ */
+public class IntMinHeap {
+	/**
+	 * the ids in heap order
+	 */
+	protected int heap[];
+	protected int size;
+
+	/**
+	 * pos[id] is the index of id in heap, -1 if it is not in the heap
+	 */
+	protected int pos[];
+
+	/**
+	 * key of every id in the heap
+	 */
+	protected int key[];
+
+	/**
+	 * construct an empty heap
+	 * @param capacity Number of ids.
+	 */
+	public IntMinHeap(int capacity) {
+		heap = new int[capacity];
+		pos = new int[capacity];
+		key = new int[capacity];
+		Arrays.fill(pos, -1);
+	} // end of IntMinHeap()
+
+
+	/**
+	 * Whether the heap is empty.
+	 * @return True if there is no id. Otherwise false.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	} // end of isEmpty()
+
+
+	/**
+	 * Number of ids in the heap.
+	 * @return The number of ids.
+	 */
+	public int size() {
+		return size;
+	} // end of size()
+
+
+	/**
+	 * Whether an id is in the heap.
+	 * @param id The id.
+	 * @return True if it is in the heap. Otherwise false.
+	 */
+	public boolean contains(int id) {
+		return pos[id] >= 0;
+	} // end of contains()
+
+
+	/**
+	 * Add an id, or decrease its key if it is in the heap already with a larger key.
+	 * @param id The id.
+	 * @param k Its key.
+	 */
+	public void push(int id, int k) {
+		if (pos[id] < 0) {
+			pos[id] = size;
+			heap[size++] = id;
+		} else if (k >= key[id]) {
+			return;
+		}
+		key[id] = k;
+		siftUp(pos[id]);
+	} // end of push()
+
+
+	/**
+	 * Key of the smallest id.
+	 * @return Key of the top of the heap.
+	 */
+	public int peekKey() {
+		return key[heap[0]];
+	} // end of peekKey()
+
+
+	/**
+	 * Remove the id with the smallest key.
+	 * @return The id.
+	 */
+	public int poll() {
+		int top = heap[0];
+		int last = heap[--size];
+		pos[top] = -1;
+		if (size > 0) {
+			heap[0] = last;
+			pos[last] = 0;
+			siftDown(0);
+		}
+		return top;
+	} // end of poll()
+
+
+	/**
+	 * Move the id at index i up until its parent is not larger.
+	 * @param i Index in heap.
+	 */
+	protected void siftUp(int i) {
+		int id = heap[i];
+		while (i > 0) {
+			int p = (i - 1) >>> 1;
+			if (key[heap[p]] <= key[id])
+				break;
+			heap[i] = heap[p];
+			pos[heap[i]] = i;
+			i = p;
+		}
+		heap[i] = id;
+		pos[id] = i;
+	} // end of siftUp()
+
+
+	/**
+	 * Move the id at index i down until its children are not smaller.
+	 * @param i Index in heap.
+	 */
+	protected void siftDown(int i) {
+		int id = heap[i];
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size)
+				break;
+			if (child + 1 < size && key[heap[child + 1]] < key[heap[child]])
+				child++;
+			if (key[heap[child]] >= key[id])
+				break;
+			heap[i] = heap[child];
+			pos[heap[i]] = i;
+			i = child;
+		}
+		heap[i] = id;
+		pos[id] = i;
+	} // end of siftDown()
+
+} // end of class IntMinHeap
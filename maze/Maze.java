@@ -9,7 +9,8 @@ import java.util.List;
  *
  * Abstract class of Maze defines the interface 
  * and a set of constants common for every type of maze in the assignment.
- * solvers require that:
+ * The walls of all cells are stored in a dense bit-packed WallGrid, the c-th cell of row r has id r * stride + c.
+ * The Cell/Wall view in map[][] is only built on demand by buildMap() for legacy code, which requires that:
  * all cells are stored in matrix map[][], 
  * map[r][c].r == r and map[r][c].c == c,  
  * all neighbor cell objects are assigned correctly for each cell, 
@@ -34,8 +35,9 @@ public abstract class Maze {
 	public final static int SOUTHEAST = 5;
 	public final static int SOUTH = 5;
 	public final static int NUM_DIR = 6;
-	// used for move along a deriction, for both square and hexagon
+	// used for move along a deriction in map[][], for both square and hexagon
 	// e.g., the northeast neighbor of map[r][c] would be map[r + deltaR[NORTHEAST][c + deltaC[NORTHEAST]]
+	// code working on cell ids should use offset[][] and neighbor() instead
 	public final static int deltaR[] = { 0, 1, 1, 0, -1, -1 };
 	public final static int deltaC[] = { 1, 1, 0, -1, -1, 0 };
 	public final static int oppoDir[] = { 3, 4, 5, 0, 1, 2 };
@@ -50,7 +52,188 @@ public abstract class Maze {
 	public Cell map[][] = null;
 	public Cell entrance;
 	public Cell exit;
+	public int entranceId = -1;
+	public int exitId = -1;
 	public boolean isVisu = true;
+	// directions that exist in this type of maze
+	public int dirs[];
+	// offset[r % 2][k] is added to the id of a cell on row r to get its neighbor on direction k
+	public int offset[][] = new int[2][NUM_DIR];
+	
+	/**
+	 * packed walls of every cell, the source of truth of the maze
+	 */
+	protected WallGrid grid = null;
+	// number of cells in a row of the grid
+	public int stride;
+	// colDelta[r % 2][k] is the column offset from a cell on row r to its neighbor on direction k
+	protected int colDelta[][] = { deltaC.clone(), deltaC.clone() };
+	// bit k is set if direction k exists in this type of maze
+	protected int dirMask;
+	
+	/**
+	 * Set up offset[][] and dirMask, once stride is known.
+	 */
+	protected void initOffsets() {
+		dirMask = 0;
+		for (int k : dirs)
+			dirMask |= 1 << k;
+		for (int p = 0; p < 2; p++)
+			for (int k = 0; k < NUM_DIR; k++)
+				offset[p][k] = deltaR[k] * stride + colDelta[p][k];
+	} // end of initOffsets()
+	
+	/**
+	 * Id of the cell at (r, c) of the grid.
+	 * @param r Row of a cell.
+	 * @param c Column of a cell, counted from the first cell of row r.
+	 * @return Id of the cell in the wall grid.
+	 */
+	protected int id(int r, int c) {
+		return r * stride + c;
+	} // end of id()
+	
+	/**
+	 * Row of a cell.
+	 * @param id Id of a cell.
+	 * @return Row of the cell.
+	 */
+	public int row(int id) {
+		return id / stride;
+	} // end of row()
+	
+	/**
+	 * Column of a cell, counted from the first cell of its row.
+	 * @param id Id of a cell.
+	 * @return Column of the cell.
+	 */
+	public int col(int id) {
+		return id % stride;
+	} // end of col()
+	
+	/**
+	 * Id of a cell given by the coordinates of the input file.
+	 * @param r Row of a cell.
+	 * @param c Column of a cell, counted from the first cell of row r.
+	 * @return Id of the cell, -1 if it is not in the maze.
+	 */
+	public int cellAt(int r, int c) {
+		if (r < 0 || r >= sizeR || c < 0 || c >= sizeC)
+			return -1;
+		return id(r, c);
+	} // end of cellAt()
+	
+	/**
+	 * Id of the neighbor of a cell.
+	 * @param id Id of a cell.
+	 * @param dir Direction of the neighbor.
+	 * @return Id of the neighbor, -1 if there is no neighbor on that direction.
+	 */
+	public int neighbor(int id, int dir) {
+		if ((dirMask & 1 << dir) == 0)
+			return -1;
+		int r = id / stride;
+		int p = r & 1;
+		int nr = r + deltaR[dir];
+		int nc = id - r * stride + colDelta[p][dir];
+		if (nr < 0 || nr >= sizeR || nc < 0 || nc >= sizeC)
+			return -1;
+		return id + offset[p][dir];
+	} // end of neighbor()
+	
+	/**
+	 * Index of the tunnel a cell is an end of.
+	 * @param id Id of a cell.
+	 * @return Index of the tunnel, from 0 to sizeTunnel - 1, -1 if the cell is not an end of a tunnel.
+	 */
+	public int tunnelId(int id) {
+		return -1;
+	} // end of tunnelId()
+	
+	/**
+	 * Id of one end of a tunnel.
+	 * @param t Index of the tunnel, from tunnelId().
+	 * @param end 0 or 1 for either end.
+	 * @return Id of the end, -1 if the maze has no tunnels.
+	 */
+	public int tunnelEnd(int t, int end) {
+		return -1;
+	} // end of tunnelEnd()
+	
+	/**
+	 * Id of the other end of a tunnel.
+	 * @param id Id of a cell.
+	 * @return Id of the other end, -1 if the cell is not an end of a tunnel.
+	 */
+	public int tunnelTo(int id) {
+		return -1;
+	} // end of tunnelTo()
+	
+	/**
+	 * Check whether the wall on a direction of a cell has been carved.
+	 * @param id Id of a cell.
+	 * @param dir Direction of the wall.
+	 * @return True if there is a passage to the neighbor. Otherwise false.
+	 */
+	public boolean isOpen(int id, int dir) {
+		if (dir < 3)
+			return grid.get(id, dir);
+		int next = neighbor(id, dir);
+		return next >= 0 && grid.get(next, oppoDir[dir]);
+	} // end of isOpen()
+	
+	/**
+	 * Carve the wall on a direction of a cell. Boundary walls are never carved.
+	 * @param id Id of a cell.
+	 * @param dir Direction of the wall.
+	 */
+	public void carve(int id, int dir) {
+		setOpen(id, dir, true);
+	} // end of carve()
+	
+	/**
+	 * Same as carve(), but safe to call from several threads carving different walls at once.
+	 * @param id Id of a cell.
+	 * @param dir Direction of the wall.
+	 */
+	public void carveConcurrent(int id, int dir) {
+		int next = neighbor(id, dir);
+		if (next < 0)
+			return;
+		if (dir < 3)
+			grid.setAtomic(id, dir);
+		else
+			grid.setAtomic(next, oppoDir[dir]);
+	} // end of carveConcurrent()
+	
+	/**
+	 * Rebuild a carved wall on a direction of a cell.
+	 * @param id Id of a cell.
+	 * @param dir Direction of the wall.
+	 */
+	public void rebuild(int id, int dir) {
+		setOpen(id, dir, false);
+	} // end of rebuild()
+	
+	/**
+	 * Carve or rebuild the wall on a direction of a cell.
+	 * @param id Id of a cell.
+	 * @param dir Direction of the wall.
+	 * @param open True to carve the wall, false to rebuild it.
+	 */
+	protected void setOpen(int id, int dir, boolean open) {
+		int next = neighbor(id, dir);
+		if (next < 0)
+			return;
+		if (dir >= 3) {
+			id = next;
+			dir = oppoDir[dir];
+		}
+		if (open)
+			grid.set(id, dir);
+		else
+			grid.clear(id, dir);
+	} // end of setOpen()
 	
 	/**
 	 * To test whether the input entrance and exit locations are valid.
@@ -72,6 +255,16 @@ public abstract class Maze {
 	 */
 	public abstract void initMaze(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList);
 
+	/**
+	 * Build the legacy Cell/Wall view of the maze in map[][], entrance and exit from the wall grid.
+	 */
+	public abstract void buildMap();
+
+	/**
+	 * Write walls changed through the Cell/Wall view back to the wall grid.
+	 */
+	public abstract void commitMap();
+
 	/**
 	 * Check whether the maze is a perfect maze
 	 * @return true if it is perfect maze, i.e. every cell can be visited and there is no loop.
@@ -89,6 +282,12 @@ public abstract class Maze {
 	 */
 	public abstract void drawFtPrt(Cell cell);
 
+	/**
+	 * Draw a foot print at cell's position, for testing solution
+	 * @param id Id of the cell to be drawn.
+	 */
+	public abstract void drawFtPrt(int id);
+
 
         /**
          * Show validation result of whether the maze is solved
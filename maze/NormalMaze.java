@@ -13,14 +13,15 @@ import maze.StdDraw;
  */
 public class NormalMaze extends Maze {
 
- 	/**
- 	 * Boolean matrix to record visited cells by drawFtPrt(Cell)
- 	 */
- 	protected boolean isRecorded[][];
+	/**
+	 * Cells recorded by drawFtPrt(), for validation
+	 */
+	protected Footprints footprints;
 
 	
 	public NormalMaze() {
 		type = NORMAL;
+		dirs = new int[] { EAST, NORTH, WEST, SOUTH };
 	} // end of NormalMaze()
 
 	// auxiliary functions
@@ -35,18 +36,6 @@ public class NormalMaze extends Maze {
 	} // end of isIn()
 
 	
-	/**
-	 * Check whether the cell is in the maze.
-	 * @param cell The cell being checked. 
-	 * @return True if in the maze. Otherwise false.
-	 */
-	protected boolean isIn(Cell cell) {
-		if (cell == null)
-			return false;
-		return isIn(cell.r, cell.c);
-	} // end of isIn()
-	
-	
 	@Override
 	public boolean isOnEdge(int r, int c) {
 		if (isIn(r, c) && (r == 0 || r == sizeR - 1 || c == 0 || c == sizeC - 1)) 
@@ -55,6 +44,52 @@ public class NormalMaze extends Maze {
 	} // end of isOnEdge()
 	
 	
+	/**
+	 * Column of a cell in map[][] from its column in the grid.
+	 * @param r Row coordinate
+	 * @param c Column coordinate in the grid
+	 * @return Column coordinate in map[][].
+	 */
+	protected int mapCol(int r, int c) {
+		return c;
+	} // end of mapCol()
+	
+	
+	/**
+	 * Column of a cell in the grid from its column in map[][].
+	 * @param r Row coordinate
+	 * @param c Column coordinate in map[][]
+	 * @return Column coordinate in the grid.
+	 */
+	protected int gridCol(int r, int c) {
+		return c;
+	} // end of gridCol()
+	
+	
+	/**
+	 * Cell object of a cell id in the Cell/Wall view.
+	 * @param id Id of a cell.
+	 * @return The cell in map[][].
+	 */
+	protected Cell mapCell(int id) {
+		int r = id / stride;
+		return map[r][mapCol(r, id - r * stride)];
+	} // end of mapCell()
+	
+	
+	/**
+	 * Find the direction of the boundary wall left open for an entrance or exit.
+	 * @param id Id of the entrance or exit.
+	 * @return The first direction of the cell without a neighbor.
+	 */
+	protected int borderDir(int id) {
+		for (int k : dirs)
+			if (neighbor(id, k) < 0)
+				return k;
+		return -1;
+	} // end of borderDir()
+	
+	
 	@Override
 	public void initMaze(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList) {
 		// set up maze constants
@@ -62,22 +97,37 @@ public class NormalMaze extends Maze {
 		sizeC = cs;
 		sizeTunnel = tunnelList.size();
 		
-		// set up map matrix
-		map = new Cell[sizeR][sizeC];
+		// set up all-wall grid
+		stride = sizeC;
+		grid = new WallGrid(sizeR * stride);
+		initOffsets();
+		
+		// set up entrance and exit
+		entranceId = cellAt(entR, entC);
+		exitId = cellAt(exitR, exitC);
+
+		// set up recording of footprints for validation
+		footprints = new Footprints(this);
+	} // end of initMaze()
+	
+	
+	@Override
+	public void buildMap() {
+		// wide enough for the skewed columns of map[][] in a hex maze
+		map = new Cell[sizeR][mapCol(sizeR, sizeC)];
 		for (int i = 0; i < sizeR; i++){
 			for (int j = 0; j < sizeC; j++) {
-				Cell cell = new Cell(i, j);
-				map[i][j] = cell;
-				for (int k = 0; k < 3; k++) {
-					if (k == 1)
-						continue;
-					cell.wall[k] = new Wall();
-				}
-				for (int k = 3; k < NUM_DIR; k++) {
-					if (k == 4)
-						continue;
-					if (isIn(i + deltaR[k], j + deltaC[k])) {
-						Cell neigh = map[i + deltaR[k]][j + deltaC[k]];
+				int id = id(i, j);
+				Cell cell = new Cell(i, mapCol(i, j));
+				map[cell.r][cell.c] = cell;
+				for (int k : dirs) {
+					int next = neighbor(id, k);
+					if (k < 3) {
+						cell.wall[k] = new Wall();
+						cell.wall[k].present = !grid.get(id, k);
+					}
+					else if (next >= 0) {
+						Cell neigh = mapCell(next);
 						cell.wall[k] = neigh.wall[oppoDir[k]];
 						cell.neigh[k] = neigh;
 						neigh.neigh[oppoDir[k]] = cell;
@@ -89,47 +139,28 @@ public class NormalMaze extends Maze {
 		}
 		
 		// set up entrance and exit
-		if (isIn(entR, entC))
-			entrance = map[entR][entC];
-		if (isIn(exitR, exitC))
-			exit = map[exitR][exitC];
-
- 		// set up recording matrix for validation
- 		isRecorded = new boolean[sizeR][sizeC];
-	} // end of initMaze()
+		if (entranceId >= 0)
+			entrance = mapCell(entranceId);
+		if (exitId >= 0)
+			exit = mapCell(exitId);
+	} // end of buildMap()
 	
 	
 	@Override
-	public boolean isPerfect() {
-		boolean visited[][] = new boolean[sizeR][sizeC];
-		Queue<Cell> queue = new LinkedList<Cell>();
-		
-		queue.add(entrance);
-		
-		while (!queue.isEmpty()) {
-			Cell currCell = queue.poll();
-			visited[currCell.r][currCell.c] = true;
-			int visitedNeigh = 0;
-			for (int i = 0; i < NUM_DIR; i++) {
-				Cell nextCell = currCell.neigh[i];
-				if (!isIn(nextCell) || currCell.wall[i].present)
-					continue;
-				if (visited[nextCell.r][nextCell.c])
-					visitedNeigh += 1; 
-				else
-					queue.add(nextCell);
-			}
-			
-			if (visitedNeigh > 1)
-				return false;
-		}
-		
+	public void commitMap() {
 		for (int i = 0; i < sizeR; i++)
-			for (int j = 0; j < sizeC; j++)
-				if (!visited[i][j])
-					return false;
-		
-		return true;
+			for (int j = 0; j < sizeC; j++) {
+				Cell cell = map[i][mapCol(i, j)];
+				for (int k : dirs)
+					if (k < 3)
+						setOpen(id(i, j), k, !cell.wall[k].present);
+			}
+	} // end of commitMap()
+	
+	
+	@Override
+	public boolean isPerfect() {
+		return new PerfectCheck(this).isPerfect();
 	} // end of isPerfect()
 
 	
@@ -139,30 +170,8 @@ public class NormalMaze extends Maze {
 		if (!isVisu)
 			return;
 		
-		for (int i = 0; i < sizeR; i++)
-			for (int j = 0; j < sizeC; j++)
-				for (int k = 0; k < NUM_DIR; k++) {
-					if (map[i][j].wall[k] != null)
-						map[i][j].wall[k].drawn = false;
-				}
-		
-		for (int k = 0; k < NUM_DIR; k++) {
-			if (k == 1 || k == 4)
-				continue;
-			if (entrance.neigh[k] == null) {
-				entrance.wall[k].drawn = true;
-				break;
-			}
-		}
-		
-		for (int k = 0; k < NUM_DIR; k++) {
-			if (k == 1 || k == 4)
-				continue;
-			if (exit.neigh[k] == null) {
-				exit.wall[k].drawn = true;
-				break;
-			}
-		}
+		int entDir = borderDir(entranceId);
+		int exitDir = borderDir(exitId);
 		
 		StdDraw.setCanvasSize(900, 900);
 		StdDraw.setXscale(-1, sizeC+1);
@@ -170,25 +179,27 @@ public class NormalMaze extends Maze {
 
 		// draw entrance
 		StdDraw.setPenColor(StdDraw.BLUE);
-		if (entrance != null) {
-			StdDraw.filledCircle(entrance.c + 0.5, entrance.r + 0.5, 0.375);
+		if (entranceId >= 0) {
+			StdDraw.filledCircle(entranceId % stride + 0.5, entranceId / stride + 0.5, 0.375);
 		}
 
 		// draw exit
 		StdDraw.setPenColor(StdDraw.RED);
-		if (exit != null) {
-			StdDraw.filledCircle(exit.c + 0.5, exit.r + 0.5, 0.375);
+		if (exitId >= 0) {
+			StdDraw.filledCircle(exitId % stride + 0.5, exitId / stride + 0.5, 0.375);
 		}        
 
 
-		// draw walls
+		// draw walls, a wall shared by two cells is drawn by its owner, boundary walls by the only cell next to them
 		StdDraw.setPenColor(StdDraw.BLACK);
 		for (int r = 0; r < sizeR; r++) {
 			for (int c = 0; c < sizeC; c++) {
-				if (map[r][c].wall[EAST].present && !map[r][c].wall[EAST].drawn) { StdDraw.line(c+1, r, c+1, r+1); map[r][c].wall[EAST].drawn = true; }
-				if (map[r][c].wall[NORTH].present && !map[r][c].wall[NORTH].drawn) { StdDraw.line(c, r+1, c+1, r+1); map[r][c].wall[NORTH].drawn = true; }
-				if (map[r][c].wall[WEST].present && !map[r][c].wall[WEST].drawn) { StdDraw.line(c, r, c, r+1); map[r][c].wall[WEST].drawn = true; }
-				if (map[r][c].wall[SOUTH].present && !map[r][c].wall[SOUTH].drawn) { StdDraw.line(c, r, c+1, r); map[r][c].wall[SOUTH].drawn = true; }
+				int id = id(r, c);
+				boolean isEnt = id == entranceId, isExit = id == exitId;
+				if (!grid.get(id, EAST) && !(isEnt && entDir == EAST) && !(isExit && exitDir == EAST)) StdDraw.line(c+1, r, c+1, r+1);
+				if (!grid.get(id, NORTH) && !(isEnt && entDir == NORTH) && !(isExit && exitDir == NORTH)) StdDraw.line(c, r+1, c+1, r+1);
+				if (c == 0 && !(isEnt && entDir == WEST) && !(isExit && exitDir == WEST)) StdDraw.line(c, r, c, r+1);
+				if (r == 0 && !(isEnt && entDir == SOUTH) && !(isExit && exitDir == SOUTH)) StdDraw.line(c, r, c+1, r);
 			}
 		}
 	} // end of draw()
@@ -196,67 +207,27 @@ public class NormalMaze extends Maze {
 	
 	@Override
 	public void drawFtPrt(Cell cell) {
- 		// record every cell drawn
- 		isRecorded[cell.r][cell.c] = true;
+		drawFtPrt(id(cell.r, gridCol(cell.r, cell.c)));
+	} // end of drawFtPrt()
+	
+	
+	@Override
+	public void drawFtPrt(int id) {
+		// record every cell drawn
+		footprints.record(id);
 
 		// draw nothing if visualization is switched off
 		if (!isVisu)
 			return;
 		
 		StdDraw.setPenColor(StdDraw.GRAY);
-		StdDraw.filledCircle(cell.c + 0.5, cell.r + 0.5, 0.25);
+		StdDraw.filledCircle(id % stride + 0.5, id / stride + 0.5, 0.25);
 	} // end of drawFtPrt()
 	
 
-        @Override
-        public boolean validate() {
-                boolean isValid = true;
-                int pathLength = 0;
-                int count = 0;
-
-                int stepCount[][] = new int[sizeR][sizeC];
-                Queue<Cell> queue = new LinkedList<Cell>();
-
-                queue.add(entrance);
-                stepCount[entrance.r][entrance.c] = 1;
-
-                while (!queue.isEmpty()) {
-                        Cell cell = queue.poll();
-                        count++;
-                        int step = stepCount[cell.r][cell.c];
-
-                        for (int i = 0; i < Maze.NUM_DIR; i++) {
-                                Cell next = cell.neigh[i];
-                                if (next != null && !cell.wall[i].present && isRecorded[next.r][next.c] && stepCount[next.r][next.c] == 0) {
-                                        stepCount[next.r][next.c] = step + 1;
-                                        queue.add(next);
-                                }
-                        }
-                }
-
-                if (stepCount[exit.r][exit.c] == 0) {
-                        isValid = false;
-                        System.out.println("[Validation] Exit is not reached.");
-                }
-                else {
-                        pathLength = stepCount[exit.r][exit.c];
-                }
-
-                for (int i = 0; i < sizeR; i++){
-                        for (int j = 0; j < sizeC; j++) {
-                                if (isValid && isRecorded[i][j] && stepCount[i][j] == 0) {
-                                        isValid = false;
-                                        System.out.println("[Validation] Visited cell not reachable.");
-                                }
-                        }
-                }
-
-                if (isValid) {
-                        System.out.println("[Validation] Number of cells visited = " + count);
-                        System.out.println("[Validation] Path length of the solution = " + pathLength);
-                }
-
-                return isValid;
-        } // end of validate()
+	@Override
+	public boolean validate() {
+		return footprints.validate();
+	} // end of validate()
 
 } // end of class NormalMaze
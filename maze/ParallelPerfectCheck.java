@@ -0,0 +1,309 @@
+package maze;
+
+import java.util.concurrent.*;
+
+/**
+ * Parallel check of the connectivity and the perfectness of a maze, tile by tile.
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ *
+ * The maze is cut into tiles of whole rows. Every tile joins its cells through the walls carved
+ * inside it in a union-find of its own cells, all tiles at once. The walls carved across the
+ * borders of the tiles and the tunnels are then joined serially, which touches one row per tile
+ * only. Last, every tile flattens its cells to their roots and counts the roots and the cells not
+ * joined to the entrance, all tiles at once again.
+ *
+ * Every union which fails closes an independent cycle, so the number of cycles is the number of
+ * edges minus the number of cells plus the number of components. Inside a tile the union-find
+ * only links cells of the tile, so the tiles write apart in parent[] and need no locking.
+ */
+public class ParallelPerfectCheck {
+	/**
+	 * tiles are no smaller than MIN_CELLS cells
+	 */
+	public final static int MIN_CELLS = 1 << 16;
+
+	protected Maze maze;
+	protected ForkJoinPool pool;
+	// rows of a tile and number of tiles
+	protected int tileRows;
+	protected int numTiles;
+	// parent of every cell in the union-find
+	protected int parent[];
+	protected int root;
+
+	protected long numEdges = 0;
+	protected long numCycles = 0;
+	protected long numComponents = 0;
+	protected long numUnreachable = 0;
+
+	/**
+	 * check a maze on the common pool
+	 * @param maze The maze to check.
+	 */
+	public ParallelPerfectCheck(Maze maze) {
+		this(maze, ForkJoinPool.commonPool(), Math.max(1, MIN_CELLS / Math.max(1, maze.sizeC)));
+	} // end of ParallelPerfectCheck()
+
+
+	/**
+	 * check a maze on a given pool
+	 * @param maze The maze to check.
+	 * @param pool The pool checking the tiles.
+	 * @param tileRows Number of rows of a tile.
+	 */
+	public ParallelPerfectCheck(Maze maze, ForkJoinPool pool, int tileRows) {
+		this.maze = maze;
+		this.pool = pool;
+		this.tileRows = tileRows;
+		numTiles = (maze.sizeR + tileRows - 1) / tileRows;
+		parent = new int[maze.sizeR * maze.stride];
+
+		pool.invoke(new Tiles(true, 0, numTiles));
+
+		// the walls between tiles, from the last row of every tile to the first row of the next one
+		for (int t = 1; t < numTiles; t++) {
+			int r = t * tileRows - 1;
+			for (int c = 0; c < maze.sizeC; c++) {
+				int id = maze.id(r, c);
+				for (int k = 1; k < 3; k++)
+					if (maze.grid.get(id, k))
+						join(id, maze.neighbor(id, k));
+			}
+		}
+		for (int t = 0; t < maze.sizeTunnel; t++) {
+			int a = maze.tunnelEnd(t, 0);
+			int b = maze.tunnelEnd(t, 1);
+			if (a >= 0 && b >= 0)
+				join(a, b);
+		}
+
+		root = find(maze.entranceId >= 0 ? maze.entranceId : 0);
+		pool.invoke(new Tiles(false, 0, numTiles));
+	} // end of ParallelPerfectCheck()
+
+
+	/**
+	 * Task labelling or counting a range of tiles, split in halves down to one tile.
+	 */
+	protected class Tiles extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		// label the tiles, or count their roots and unreachable cells
+		protected boolean label;
+		protected int lo;
+		protected int hi;
+
+		protected Tiles(boolean label, int lo, int hi) {
+			this.label = label;
+			this.lo = lo;
+			this.hi = hi;
+		} // end of Tiles()
+
+		@Override
+		protected void compute() {
+			if (hi - lo > 1) {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new Tiles(label, lo, mid), new Tiles(label, mid, hi));
+				return;
+			}
+			int from = maze.id(lo * tileRows, 0);
+			int to = maze.id(Math.min(hi * tileRows, maze.sizeR), 0);
+			if (label)
+				label(from, to);
+			else
+				count(from, to);
+		} // end of compute()
+	} // end of class Tiles
+
+
+	/**
+	 * Join the cells of a tile through the walls carved inside it.
+	 * @param from Id of the first cell of the tile.
+	 * @param to Id after the last cell of the tile.
+	 */
+	protected void label(int from, int to) {
+		int lastRow = to - maze.stride;
+		long edges = 0, cycles = 0;
+
+		for (int id = from; id < to; id++)
+			parent[id] = id;
+
+		long words[] = maze.grid.words;
+		for (int w = from / WallGrid.CELLS_PER_WORD; w * WallGrid.CELLS_PER_WORD < to; w++) {
+			long bits = words[w] & WallGrid.WALL_BITS;
+			int first = w * WallGrid.CELLS_PER_WORD;
+			// keep the cells of the tile only
+			if (first < from)
+				bits &= -1L << ((from - first) * WallGrid.BITS_PER_CELL);
+			if (first + WallGrid.CELLS_PER_WORD > to)
+				bits &= (1L << ((to - first) * WallGrid.BITS_PER_CELL)) - 1;
+
+			for (; bits != 0; bits &= bits - 1) {
+				int b = Long.numberOfTrailingZeros(bits);
+				int id = first + b / WallGrid.BITS_PER_CELL;
+				int k = b % WallGrid.BITS_PER_CELL;
+				// a wall up from the last row is joined with the next tile
+				if (k != Maze.EAST && id >= lastRow)
+					continue;
+				edges++;
+				if (!union(id, maze.neighbor(id, k)))
+					cycles++;
+			}
+		}
+		add(edges, cycles, 0, 0);
+	} // end of label()
+
+
+	/**
+	 * Point the cells of a tile to their roots, and count the roots and the cells not joined to the entrance.
+	 * @param from Id of the first cell of the tile.
+	 * @param to Id after the last cell of the tile.
+	 */
+	protected void count(int from, int to) {
+		long roots = 0, unreachable = 0;
+		for (int id = from; id < to; id++) {
+			int r = id;
+			while (parent[r] != r)
+				r = parent[r];
+			// the parents of other tiles are read only, they are set to their roots at most
+			parent[id] = r;
+			if (r == id)
+				roots++;
+			if (r != root)
+				unreachable++;
+		}
+		add(0, 0, roots, unreachable);
+	} // end of count()
+
+
+	/**
+	 * Add the counts of a tile.
+	 * @param edges Number of edges.
+	 * @param cycles Number of edges closing a cycle.
+	 * @param components Number of roots.
+	 * @param unreachable Number of cells not joined to the entrance.
+	 */
+	protected synchronized void add(long edges, long cycles, long components, long unreachable) {
+		numEdges += edges;
+		numCycles += cycles;
+		numComponents += components;
+		numUnreachable += unreachable;
+	} // end of add()
+
+
+	/**
+	 * Join two cells between tiles, serially.
+	 * @param a Id of a cell.
+	 * @param b Id of another cell.
+	 */
+	protected void join(int a, int b) {
+		numEdges++;
+		if (!union(a, b))
+			numCycles++;
+	} // end of join()
+
+
+	/**
+	 * Find the root of a cell, halving the path on the way.
+	 * @param x Id of the cell.
+	 * @return Id of the root.
+	 */
+	protected int find(int x) {
+		while (parent[x] != x) {
+			parent[x] = parent[parent[x]];
+			x = parent[x];
+		}
+		return x;
+	} // end of find()
+
+
+	/**
+	 * Merge the sets of two cells, the larger root hangs from the smaller one.
+	 * @param a Id of a cell.
+	 * @param b Id of another cell.
+	 * @return True if they were in different sets. Otherwise false.
+	 */
+	protected boolean union(int a, int b) {
+		a = find(a);
+		b = find(b);
+		if (a == b)
+			return false;
+		if (a < b)
+			parent[b] = a;
+		else
+			parent[a] = b;
+		return true;
+	} // end of union()
+
+
+	/**
+	 * Whether the maze is perfect.
+	 * @return True if perfect. Otherwise false.
+	 */
+	public boolean isPerfect() {
+		return numCycles == 0 && numComponents == 1;
+	} // end of isPerfect()
+
+
+	/**
+	 * Number of independent cycles, edges minus cells plus components.
+	 * @return The number of cycles.
+	 */
+	public long numCycles() {
+		return numCycles;
+	} // end of numCycles()
+
+
+	/**
+	 * Number of connected components.
+	 * @return The number of components.
+	 */
+	public long numComponents() {
+		return numComponents;
+	} // end of numComponents()
+
+
+	/**
+	 * Number of cells not joined to the entrance.
+	 * @return The number of cells.
+	 */
+	public long numUnreachable() {
+		return numUnreachable;
+	} // end of numUnreachable()
+
+
+	/**
+	 * Number of carved walls and tunnels.
+	 * @return The number of edges.
+	 */
+	public long numEdges() {
+		return numEdges;
+	} // end of numEdges()
+
+
+	/**
+	 * Whether a cell is joined to the entrance.
+	 * @param id Id of the cell.
+	 * @return True if reachable. Otherwise false.
+	 */
+	public boolean isReachable(int id) {
+		return parent[id] == root;
+	} // end of isReachable()
+
+
+	/**
+	 * The cells not joined to the entrance, in order of id.
+	 * @param max Largest number of cells to return.
+	 * @return Ids of up to max cells.
+	 */
+	public int[] unreachable(int max) {
+		int cells[] = new int[(int) Math.min(max, numUnreachable)];
+		int n = 0;
+		for (int id = 0; n < cells.length; id++)
+			if (parent[id] != root)
+				cells[n++] = id;
+		return cells;
+	} // end of unreachable()
+
+} // end of class ParallelPerfectCheck
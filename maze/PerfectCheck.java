@@ -0,0 +1,137 @@
+package maze;
+
+/**
+ * Check of whether a maze is perfect, with a witness when it is not.
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ *
+ * A maze of n cells is perfect if its carved walls and tunnels form a tree: n - 1 edges and no
+ * cycle. The carved walls are counted a word of the wall grid at a time, then the edges are joined
+ * in a union-find, stopping at the first one which closes a cycle. With n - 1 edges and no cycle
+ * every cell is connected; with fewer, a cell not connected to the entrance is the witness.
+ */
+public class PerfectCheck {
+	/**
+	 * outcome of the check
+	 */
+	public final static int PERFECT = 0;
+	public final static int CYCLE = 1;
+	public final static int UNREACHABLE = 2;
+	// direction of a witness edge which is a tunnel
+	public final static int TUNNEL = Maze.NUM_DIR;
+
+	protected int outcome = PERFECT;
+	// the edge closing a cycle, or the cell not connected to the entrance
+	protected int cell = -1;
+	protected int dir = -1;
+	protected long numEdges;
+
+	/**
+	 * check a maze
+	 * @param maze The maze to check.
+	 */
+	public PerfectCheck(Maze maze) {
+		int numCells = maze.sizeR * maze.sizeC;
+		int numTunnels = 0;
+		for (int t = 0; t < maze.sizeTunnel; t++)
+			if (maze.tunnelEnd(t, 0) >= 0 && maze.tunnelEnd(t, 1) >= 0)
+				numTunnels++;
+		numEdges = maze.grid.countWalls() + numTunnels;
+
+		UnionFind sets = new UnionFind(maze.sizeR * maze.stride);
+		long words[] = maze.grid.words;
+		for (int w = 0; w < words.length; w++) {
+			for (long bits = words[w] & WallGrid.WALL_BITS; bits != 0; bits &= bits - 1) {
+				int b = Long.numberOfTrailingZeros(bits);
+				int id = w * WallGrid.CELLS_PER_WORD + b / WallGrid.BITS_PER_CELL;
+				int k = b % WallGrid.BITS_PER_CELL;
+				if (!sets.union(id, maze.neighbor(id, k))) {
+					witness(CYCLE, id, k);
+					return;
+				}
+			}
+		}
+		for (int t = 0; t < maze.sizeTunnel; t++) {
+			int a = maze.tunnelEnd(t, 0);
+			int b = maze.tunnelEnd(t, 1);
+			if (a >= 0 && b >= 0 && !sets.union(a, b)) {
+				witness(CYCLE, a, TUNNEL);
+				return;
+			}
+		}
+
+		// no cycle: n - 1 edges make a tree, fewer leave cells out
+		if (numEdges < numCells - 1) {
+			int root = sets.find(maze.entranceId >= 0 ? maze.entranceId : 0);
+			for (int r = 0; r < maze.sizeR; r++) {
+				for (int c = 0; c < maze.sizeC; c++) {
+					int id = maze.cellAt(r, c);
+					if (sets.find(id) != root) {
+						witness(UNREACHABLE, id, -1);
+						return;
+					}
+				}
+			}
+		}
+	} // end of PerfectCheck()
+
+
+	/**
+	 * Record why the maze is not perfect.
+	 * @param outcome CYCLE or UNREACHABLE.
+	 * @param cell Id of the cell.
+	 * @param dir Direction of the edge closing a cycle, TUNNEL for a tunnel, -1 for an unreachable cell.
+	 */
+	protected void witness(int outcome, int cell, int dir) {
+		this.outcome = outcome;
+		this.cell = cell;
+		this.dir = dir;
+	} // end of witness()
+
+
+	/**
+	 * Whether the maze is perfect.
+	 * @return True if perfect. Otherwise false.
+	 */
+	public boolean isPerfect() {
+		return outcome == PERFECT;
+	} // end of isPerfect()
+
+
+	/**
+	 * Outcome of the check.
+	 * @return PERFECT, CYCLE or UNREACHABLE.
+	 */
+	public int outcome() {
+		return outcome;
+	} // end of outcome()
+
+
+	/**
+	 * Cell of the witness.
+	 * @return Id of the cell of the edge closing a cycle or of the cell not connected to the entrance, -1 if perfect.
+	 */
+	public int cell() {
+		return cell;
+	} // end of cell()
+
+
+	/**
+	 * Direction of the edge closing a cycle.
+	 * @return The direction from cell(), TUNNEL for a tunnel, -1 if there is no cycle.
+	 */
+	public int dir() {
+		return dir;
+	} // end of dir()
+
+
+	/**
+	 * Number of carved walls and tunnels.
+	 * @return The number of edges.
+	 */
+	public long numEdges() {
+		return numEdges;
+	} // end of numEdges()
+
+} // end of class PerfectCheck
@@ -0,0 +1,319 @@
+package maze;
+
+import java.awt.*;
+import java.awt.geom.*;
+import java.awt.image.*;
+import java.io.*;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Renderer drawing a maze and its footprints into an image, without a window.
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ *
+ * The picture is the one of draw() and drawFtPrt(): the same walls, entrance, exit, tunnels and
+ * footprints, with the row 0 at the bottom. The walls and the footprints of a row are gathered in
+ * one Path2D each and drawn with one call, straight into a BufferedImage, so nothing is repainted
+ * and the renderer runs with java.awt.headless=true. StdDraw is never touched, since loading it
+ * opens its window.
+ */
+public class PngRenderer {
+	/**
+	 * colors of the picture, the ones of StdDraw and of TunnelMaze.draw()
+	 */
+	public final static Color WALL_COLOR = Color.BLACK;
+	public final static Color FOOTPRINT_COLOR = Color.GRAY;
+	public final static Color ENTRANCE_COLOR = Color.BLUE;
+	public final static Color EXIT_COLOR = Color.RED;
+	public final static Color TUNNEL_COLORS[] = { Color.CYAN, Color.GREEN, Color.MAGENTA, Color.ORANGE,
+			Color.PINK, Color.YELLOW, new Color(9, 90, 166), new Color(103, 198, 243), new Color(150, 35, 31) };
+
+	protected Maze maze;
+	// pixels per cell
+	protected double scale;
+	protected boolean isHex;
+	// size of the picture in cells, with a margin of one cell around the maze
+	protected double width;
+	protected double height;
+
+	/**
+	 * construct a renderer
+	 * @param maze The maze to draw.
+	 * @param scale Number of pixels per cell.
+	 */
+	public PngRenderer(Maze maze, double scale) {
+		this.maze = maze;
+		this.scale = scale;
+		isHex = maze.type == Maze.HEX;
+		width = maze.sizeC + (isHex ? 2.5 : 2);
+		height = maze.sizeR + 2;
+	} // end of PngRenderer()
+
+
+	/**
+	 * Draw the maze and its footprints.
+	 * @return The picture.
+	 */
+	public BufferedImage render() {
+		BufferedImage image = new BufferedImage(pixelWidth(), pixelHeight(), BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		draw(g, 0, maze.sizeR, 0, maze.sizeC);
+		g.dispose();
+		return image;
+	} // end of render()
+
+
+	/**
+	 * Draw the maze and its footprints into the part of an image covered by a tile of the picture.
+	 * @param image The image of the tile, as large as the tile.
+	 * @param x Abscissa of the top left corner of the tile in the picture, in pixels.
+	 * @param y Ordinate of the top left corner of the tile in the picture, in pixels.
+	 */
+	public void render(BufferedImage image, int x, int y) {
+		// the rows and columns under the tile, with one cell more around for the hex rows and the pen
+		int r0 = (int) Math.floor(height - 1 - (double) (y + image.getHeight()) / scale) - 1;
+		int r1 = (int) Math.ceil(height - 1 - (double) y / scale) + 1;
+		int c0 = (int) Math.floor((double) x / scale) - 2;
+		int c1 = (int) Math.ceil((double) (x + image.getWidth()) / scale) + 1;
+
+		Graphics2D g = image.createGraphics();
+		g.translate(-x, -y);
+		g.clipRect(x, y, image.getWidth(), image.getHeight());
+		draw(g, Math.max(r0, 0), Math.min(r1, maze.sizeR), Math.max(c0, 0), Math.min(c1, maze.sizeC));
+		g.dispose();
+	} // end of render()
+
+
+	/**
+	 * Draw a block of cells of the maze.
+	 * @param g The graphics of the picture.
+	 * @param r0 First row.
+	 * @param r1 Row after the last row.
+	 * @param c0 First column.
+	 * @param c1 Column after the last column.
+	 */
+	protected void draw(Graphics2D g, int r0, int r1, int c0, int c1) {
+		Rectangle clip = g.getClipBounds();
+		g.setColor(Color.WHITE);
+		if (clip != null)
+			g.fill(clip);
+		else
+			g.fillRect(0, 0, pixelWidth(), pixelHeight());
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+		Footprints footprints = maze instanceof NormalMaze ? ((NormalMaze) maze).footprints : null;
+		g.setColor(FOOTPRINT_COLOR);
+		for (int r = r0; r < r1 && footprints != null && footprints.numRecorded() > 0; r++) {
+			Path2D.Double row = new Path2D.Double();
+			for (int c = c0; c < c1; c++) {
+				if (footprints.isRecorded(maze.id(r, c)))
+					circle(row, r, c, 0.25);
+			}
+			g.fill(row);
+		}
+
+		if (maze.entranceId >= 0) {
+			g.setColor(ENTRANCE_COLOR);
+			g.fill(circle(new Path2D.Double(), maze.row(maze.entranceId), maze.col(maze.entranceId), 0.375));
+		}
+		if (maze.exitId >= 0) {
+			g.setColor(EXIT_COLOR);
+			g.fill(circle(new Path2D.Double(), maze.row(maze.exitId), maze.col(maze.exitId), 0.375));
+		}
+
+		g.setColor(WALL_COLOR);
+		g.setStroke(new BasicStroke((float) Math.max(1, scale / 12), BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+		for (int r = r0; r < r1; r++) {
+			g.draw(isHex ? hexWalls(r, c0, c1) : walls(r, c0, c1));
+		}
+
+		// the tunnel ends of the block only, gathered by color
+		Path2D.Double squares[] = new Path2D.Double[TUNNEL_COLORS.length];
+		for (int r = r0; r < r1 && maze.sizeTunnel > 0; r++) {
+			for (int c = c0; c < c1; c++) {
+				int t = maze.tunnelId(maze.id(r, c));
+				if (t < 0)
+					continue;
+				if (squares[t % TUNNEL_COLORS.length] == null)
+					squares[t % TUNNEL_COLORS.length] = new Path2D.Double();
+				squares[t % TUNNEL_COLORS.length].append(new Rectangle2D.Double(x(c + 0.1), y(r + 0.9), 0.8 * scale, 0.8 * scale), false);
+			}
+		}
+		g.setStroke(new BasicStroke((float) Math.max(1, scale / 8)));
+		for (int i = 0; i < squares.length; i++) {
+			if (squares[i] != null) {
+				g.setColor(TUNNEL_COLORS[i]);
+				g.draw(squares[i]);
+			}
+		}
+	} // end of draw()
+
+
+	/**
+	 * Width of the picture.
+	 * @return The width in pixels.
+	 */
+	public int pixelWidth() {
+		return (int) Math.ceil(width * scale);
+	} // end of pixelWidth()
+
+
+	/**
+	 * Height of the picture.
+	 * @return The height in pixels.
+	 */
+	public int pixelHeight() {
+		return (int) Math.ceil(height * scale);
+	} // end of pixelHeight()
+
+
+	/**
+	 * Draw the maze and its footprints into a PNG file.
+	 * @param file The file to write.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void write(File file) throws IOException {
+		ImageIO.write(render(), "png", file);
+	} // end of write()
+
+
+	/**
+	 * Draw the maze and its footprints as PNG into a stream.
+	 * @param out The stream, left open.
+	 * @throws IOException If the stream cannot be written.
+	 */
+	public void write(OutputStream out) throws IOException {
+		ImageIO.write(render(), "png", out);
+	} // end of write()
+
+
+	/**
+	 * The walls of a row of a normal maze, as drawn by NormalMaze.draw().
+	 * @param r Row coordinate.
+	 * @param c0 First column.
+	 * @param c1 Column after the last column.
+	 * @return The walls.
+	 */
+	protected Path2D walls(int r, int c0, int c1) {
+		Path2D.Double path = new Path2D.Double();
+		for (int c = c0; c < c1; c++) {
+			int id = maze.id(r, c);
+			if (!maze.grid.get(id, Maze.EAST) && !isGap(id, Maze.EAST))
+				line(path, c + 1, r, c + 1, r + 1);
+			if (!maze.grid.get(id, Maze.NORTH) && !isGap(id, Maze.NORTH))
+				line(path, c, r + 1, c + 1, r + 1);
+			if (c == 0 && !isGap(id, Maze.WEST))
+				line(path, c, r, c, r + 1);
+			if (r == 0 && !isGap(id, Maze.SOUTH))
+				line(path, c, r, c + 1, r);
+		}
+		return path;
+	} // end of walls()
+
+
+	/**
+	 * The walls of a row of a hex maze, as drawn by HexMaze.draw().
+	 * @param r Row coordinate.
+	 * @param c0 First column.
+	 * @param c1 Column after the last column.
+	 * @return The walls.
+	 */
+	protected Path2D hexWalls(int r, int c0, int c1) {
+		double halfEdge = 1.0 / 3;
+		double shift = r % 2 * 0.5;
+		Path2D.Double path = new Path2D.Double();
+		for (int c = c0; c < c1; c++) {
+			int id = maze.id(r, c);
+			for (int k = 0; k < Maze.NUM_DIR; k++) {
+				if ((k < 3 ? maze.grid.get(id, k) : maze.neighbor(id, k) >= 0) || isGap(id, k))
+					continue;
+				switch (k) {
+				case Maze.EAST: line(path, c+1+shift, r+0.5-halfEdge, c+1+shift, r+0.5+halfEdge); break;
+				case Maze.NORTHEAST: line(path, c+0.5+shift, r+0.5+2*halfEdge, c+1+shift, r+0.5+halfEdge); break;
+				case Maze.NORTHWEST: line(path, c+0.5+shift, r+0.5+2*halfEdge, c+shift, r+0.5+halfEdge); break;
+				case Maze.WEST: line(path, c+shift, r+0.5-halfEdge, c+shift, r+0.5+halfEdge); break;
+				case Maze.SOUTHWEST: line(path, c+shift, r+0.5-halfEdge, c+0.5+shift, r+0.5-2*halfEdge); break;
+				case Maze.SOUTHEAST: line(path, c+1+shift, r+0.5-halfEdge, c+0.5+shift, r+0.5-2*halfEdge); break;
+				}
+			}
+		}
+		return path;
+	} // end of hexWalls()
+
+
+	/**
+	 * Check whether a boundary wall is the opening of the entrance or of the exit.
+	 * @param id Id of a cell.
+	 * @param dir Direction of the wall.
+	 * @return True if the wall is not drawn. Otherwise false.
+	 */
+	protected boolean isGap(int id, int dir) {
+		return (id == maze.entranceId || id == maze.exitId) && dir == borderDir(id);
+	} // end of isGap()
+
+
+	/**
+	 * The first direction of a cell without a neighbor, as in NormalMaze.borderDir().
+	 * @param id Id of a cell.
+	 * @return The direction, -1 if the cell is not on the boundary.
+	 */
+	protected int borderDir(int id) {
+		for (int k : maze.dirs)
+			if (maze.neighbor(id, k) < 0)
+				return k;
+		return -1;
+	} // end of borderDir()
+
+
+	/**
+	 * Add a line to a path.
+	 * @param path The path.
+	 * @param x0 Column coordinate of the first end.
+	 * @param y0 Row coordinate of the first end.
+	 * @param x1 Column coordinate of the second end.
+	 * @param y1 Row coordinate of the second end.
+	 */
+	protected void line(Path2D path, double x0, double y0, double x1, double y1) {
+		path.moveTo(x(x0), y(y0));
+		path.lineTo(x(x1), y(y1));
+	} // end of line()
+
+
+	/**
+	 * Add the circle centred on a cell to a path.
+	 * @param path The path.
+	 * @param r Row coordinate of the cell.
+	 * @param c Column coordinate of the cell.
+	 * @param radius Radius of the circle, in cells.
+	 * @return The path.
+	 */
+	protected Path2D circle(Path2D path, int r, int c, double radius) {
+		double x = (isHex ? r % 2 * 0.5 : 0) + c + 0.5;
+		double y = r + 0.5;
+		path.append(new Ellipse2D.Double(x(x - radius), y(y + radius), 2 * radius * scale, 2 * radius * scale), false);
+		return path;
+	} // end of circle()
+
+
+	/**
+	 * Pixel abscissa of a column coordinate.
+	 * @param x Column coordinate.
+	 * @return The abscissa.
+	 */
+	protected double x(double x) {
+		return (x + 1) * scale;
+	} // end of x()
+
+
+	/**
+	 * Pixel ordinate of a row coordinate, the row 0 at the bottom.
+	 * @param y Row coordinate.
+	 * @return The ordinate.
+	 */
+	protected double y(double y) {
+		return (height - 1 - y) * scale;
+	} // end of y()
+
+} // end of class PngRenderer
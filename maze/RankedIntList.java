@@ -0,0 +1,154 @@
+package maze;
+
+import java.util.*;
+
+/**
+ * List of ints added at the back, read and removed by index in O(log n), keeping their order.
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ *
+ * Elements stay in the slot they were added to, and a Fenwick tree counts the removed slots, so the
+ * element at an index is found by walking down the tree to the slot with index live slots before
+ * it. Index 0 is the oldest element still in the list and size() - 1 the newest. The oldest and
+ * the newest are found without the tree, and the newest slot is given back when it is removed, so
+ * a list used as a stack or a queue costs O(1) per operation.
+ */
+public class RankedIntList {
+	/**
+	 * the elements in the order they were added, removed ones included
+	 */
+	protected int elements[];
+	protected int numAdded;
+	protected int size;
+	// no live slot below first
+	protected int first;
+	// one bit per slot, set if removed through the tree
+	protected long removed[];
+
+	/**
+	 * tree[s] is the number of removed slots in the range of s, slots counted from 1
+	 */
+	protected int tree[];
+
+	/**
+	 * construct an empty list
+	 * @param capacity Number of elements added at most until clear().
+	 */
+	public RankedIntList(int capacity) {
+		elements = new int[capacity];
+		tree = new int[capacity + 1];
+		removed = new long[(capacity + 63) >>> 6];
+	} // end of RankedIntList()
+
+
+	/**
+	 * Number of elements.
+	 * @return The number of elements.
+	 */
+	public int size() {
+		return size;
+	} // end of size()
+
+
+	/**
+	 * Whether the list is empty.
+	 * @return True if there is no element. Otherwise false.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	} // end of isEmpty()
+
+
+	/**
+	 * Add an element at the back.
+	 * @param x The element.
+	 */
+	public void addLast(int x) {
+		elements[numAdded++] = x;
+		size++;
+	} // end of addLast()
+
+
+	/**
+	 * Read an element.
+	 * @param i Index of the element, 0 for the oldest.
+	 * @return The element.
+	 */
+	public int get(int i) {
+		return elements[slot(i)];
+	} // end of get()
+
+
+	/**
+	 * Remove an element by index, keeping the order of the others.
+	 * @param i Index of the element.
+	 * @return The element.
+	 */
+	public int remove(int i) {
+		int slot = slot(i);
+		size--;
+		if (slot == numAdded - 1) {
+			// the newest slot is free again
+			numAdded--;
+			return elements[slot];
+		}
+		removed[slot >>> 6] |= 1L << slot;
+		for (int s = slot + 1; s < tree.length; s += s & -s)
+			tree[s]++;
+		return elements[slot];
+	} // end of remove()
+
+
+	/**
+	 * Remove all the elements.
+	 */
+	public void clear() {
+		Arrays.fill(tree, 0);
+		Arrays.fill(removed, 0);
+		numAdded = 0;
+		first = 0;
+		size = 0;
+	} // end of clear()
+
+
+	/**
+	 * Slot of the element at an index.
+	 * @param i Index of the element.
+	 * @return The slot, from 0.
+	 */
+	protected int slot(int i) {
+		if (size == numAdded)
+			return i;
+		if (i == size - 1 && !isRemoved(numAdded - 1))
+			return numAdded - 1;
+		if (i == 0) {
+			while (isRemoved(first))
+				first++;
+			return first;
+		}
+
+		// largest prefix of slots holding at most i live elements
+		int pos = 0;
+		int rest = i;
+		for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+			int next = pos + step;
+			if (next < tree.length && step - tree[next] <= rest) {
+				pos = next;
+				rest -= step - tree[next];
+			}
+		}
+		return pos;
+	} // end of slot()
+
+
+	/**
+	 * Whether a slot was removed through the tree.
+	 * @param slot The slot.
+	 * @return True if removed. Otherwise false.
+	 */
+	protected boolean isRemoved(int slot) {
+		return (removed[slot >>> 6] & 1L << slot) != 0;
+	} // end of isRemoved()
+
+} // end of class RankedIntList
@@ -0,0 +1,307 @@
+package maze;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.*;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Zoomable pyramid of PNG tiles of a maze and its footprints, for mazes too large for one image.
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ *
+ * The picture of PngRenderer is cut into square tiles of tileSize pixels, written as dir/z/x/y.png
+ * like map tiles. The last level draws maxScale pixels per cell and every level above halves it,
+ * down to level 0 where the whole maze fits in one tile. A tile of at least MIN_SCALE pixels per
+ * cell draws the rows and columns under it straight from the wall grid; a tile of a coarser level
+ * is its four children shrunk by half, so no tile costs more than its own pixels and the whole
+ * picture is never held at once.
+ *
+ * Tiles are made on demand: tile() draws a missing tile, and the children it needs, on the pool,
+ * the children in parallel, and keeps the files already written. invalidate() deletes the tiles
+ * over a block of cells, which are drawn again by the next request.
+ */
+public class TilePyramid {
+	/**
+	 * size of a tile in pixels, pixels per cell of the last level
+	 */
+	public final static int TILE_SIZE = 256;
+	public final static double MAX_SCALE = 16;
+
+	/**
+	 * levels drawing fewer pixels per cell than MIN_SCALE are shrunk from their children
+	 */
+	public final static double MIN_SCALE = 2;
+
+	protected Maze maze;
+	protected File dir;
+	protected ForkJoinPool pool;
+	protected int tileSize;
+	protected double maxScale;
+	protected int numLevels;
+
+	/**
+	 * construct the pyramid of a maze on the common pool
+	 * @param maze The maze to draw.
+	 * @param dir Directory of the tiles.
+	 */
+	public TilePyramid(Maze maze, File dir) {
+		this(maze, dir, ForkJoinPool.commonPool(), TILE_SIZE, MAX_SCALE);
+	} // end of TilePyramid()
+
+
+	/**
+	 * construct the pyramid of a maze
+	 * @param maze The maze to draw.
+	 * @param dir Directory of the tiles.
+	 * @param pool The pool drawing the tiles.
+	 * @param tileSize Size of a tile in pixels.
+	 * @param maxScale Number of pixels per cell of the last level.
+	 */
+	public TilePyramid(Maze maze, File dir, ForkJoinPool pool, int tileSize, double maxScale) {
+		this.maze = maze;
+		this.dir = dir;
+		this.pool = pool;
+		this.tileSize = tileSize;
+		this.maxScale = maxScale;
+
+		// halve the last level until the picture fits in one tile
+		PngRenderer last = new PngRenderer(maze, maxScale);
+		long size = Math.max(last.pixelWidth(), last.pixelHeight());
+		numLevels = 1;
+		while (size > tileSize) {
+			size = (size + 1) / 2;
+			numLevels++;
+		}
+	} // end of TilePyramid()
+
+
+	/**
+	 * Number of levels, level 0 being one tile.
+	 * @return The number of levels.
+	 */
+	public int numLevels() {
+		return numLevels;
+	} // end of numLevels()
+
+
+	/**
+	 * Pixels per cell of a level.
+	 * @param z The level.
+	 * @return The scale.
+	 */
+	public double scale(int z) {
+		return maxScale / (1L << (numLevels - 1 - z));
+	} // end of scale()
+
+
+	/**
+	 * Number of columns of tiles of a level.
+	 * @param z The level.
+	 * @return The number of tiles.
+	 */
+	public int numTilesX(int z) {
+		return (new PngRenderer(maze, scale(z)).pixelWidth() + tileSize - 1) / tileSize;
+	} // end of numTilesX()
+
+
+	/**
+	 * Number of rows of tiles of a level.
+	 * @param z The level.
+	 * @return The number of tiles.
+	 */
+	public int numTilesY(int z) {
+		return (new PngRenderer(maze, scale(z)).pixelHeight() + tileSize - 1) / tileSize;
+	} // end of numTilesY()
+
+
+	/**
+	 * File of a tile, drawn or not.
+	 * @param z The level.
+	 * @param x Column of the tile, from the left.
+	 * @param y Row of the tile, from the top.
+	 * @return The file.
+	 */
+	public File file(int z, int x, int y) {
+		return new File(dir, z + File.separator + x + File.separator + y + ".png");
+	} // end of file()
+
+
+	/**
+	 * The file of a tile, drawn first if missing.
+	 * @param z The level.
+	 * @param x Column of the tile, from the left.
+	 * @param y Row of the tile, from the top.
+	 * @return The file.
+	 * @throws IOException If the tile cannot be written.
+	 */
+	public File tile(int z, int x, int y) throws IOException {
+		File file = file(z, x, y);
+		if (!file.exists()) {
+			try {
+				pool.invoke(new Tile(z, x, y));
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		}
+		return file;
+	} // end of tile()
+
+
+	/**
+	 * Draw every missing tile, the last level first so that every coarser tile is shrunk from files.
+	 * @throws IOException If a tile cannot be written.
+	 */
+	public void renderAll() throws IOException {
+		try {
+			for (int z = numLevels - 1; z >= 0; z--)
+				pool.invoke(new Level(z, 0, numTilesX(z) * numTilesY(z)));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	} // end of renderAll()
+
+
+	/**
+	 * Delete the tiles of every level over a block of cells, to be drawn again when next requested.
+	 * @param r0 First row.
+	 * @param c0 First column.
+	 * @param r1 Row after the last row.
+	 * @param c1 Column after the last column.
+	 */
+	public void invalidate(int r0, int c0, int r1, int c1) {
+		for (int z = 0; z < numLevels; z++) {
+			PngRenderer renderer = new PngRenderer(maze, scale(z));
+			// one cell more around, for the hex rows and the pen
+			int x0 = tileOf(renderer.x(c0 - 1)), x1 = tileOf(renderer.x(c1 + 1.5));
+			int y0 = tileOf(renderer.y(r1 + 1)), y1 = tileOf(renderer.y(r0 - 1));
+			for (int x = Math.max(x0, 0); x <= Math.min(x1, numTilesX(z) - 1); x++)
+				for (int y = Math.max(y0, 0); y <= Math.min(y1, numTilesY(z) - 1); y++)
+					file(z, x, y).delete();
+		}
+	} // end of invalidate()
+
+
+	/**
+	 * Tile of a pixel coordinate.
+	 * @param p The pixel coordinate.
+	 * @return Index of the tile.
+	 */
+	protected int tileOf(double p) {
+		return (int) Math.floor(p / tileSize);
+	} // end of tileOf()
+
+
+	/**
+	 * Task drawing a range of tiles of a level, split in halves down to one tile.
+	 */
+	protected class Level extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		protected int z;
+		// tiles numbered column by column
+		protected int lo;
+		protected int hi;
+
+		protected Level(int z, int lo, int hi) {
+			this.z = z;
+			this.lo = lo;
+			this.hi = hi;
+		} // end of Level()
+
+		@Override
+		protected void compute() {
+			if (hi - lo > 1) {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new Level(z, lo, mid), new Level(z, mid, hi));
+				return;
+			}
+			int numY = numTilesY(z);
+			if (!file(z, lo / numY, lo % numY).exists())
+				new Tile(z, lo / numY, lo % numY).compute();
+		} // end of compute()
+	} // end of class Level
+
+
+	/**
+	 * Task drawing one tile, or reading it if already drawn.
+	 */
+	protected class Tile extends RecursiveTask<BufferedImage> {
+		private static final long serialVersionUID = 1L;
+		protected int z;
+		protected int x;
+		protected int y;
+
+		protected Tile(int z, int x, int y) {
+			this.z = z;
+			this.x = x;
+			this.y = y;
+		} // end of Tile()
+
+		@Override
+		protected BufferedImage compute() {
+			try {
+				File file = file(z, x, y);
+				if (file.exists())
+					return ImageIO.read(file);
+
+				BufferedImage image = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_RGB);
+				if (z == numLevels - 1 || scale(z) >= MIN_SCALE)
+					new PngRenderer(maze, scale(z)).render(image, x * tileSize, y * tileSize);
+				else
+					shrink(image);
+				write(image, file);
+				return image;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		} // end of compute()
+
+		/**
+		 * Draw the four children of the tile, in parallel, shrunk by half.
+		 * @param image The image of the tile.
+		 */
+		protected void shrink(BufferedImage image) {
+			Tile children[] = new Tile[4];
+			for (int i = 0; i < 4; i++)
+				children[i] = new Tile(z + 1, 2 * x + i / 2, 2 * y + i % 2);
+			int numX = numTilesX(z + 1), numY = numTilesY(z + 1);
+			for (int i = 0; i < 4; i++)
+				if (children[i].x < numX && children[i].y < numY)
+					children[i].fork();
+
+			Graphics2D g = image.createGraphics();
+			g.setColor(Color.WHITE);
+			g.fillRect(0, 0, tileSize, tileSize);
+			// bilinear at half size averages every 2 x 2 pixels
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			int half = tileSize / 2;
+			for (int i = 3; i >= 0; i--)
+				if (children[i].x < numX && children[i].y < numY)
+					g.drawImage(children[i].join(), i / 2 * half, i % 2 * half, half, half, null);
+			g.dispose();
+		} // end of shrink()
+	} // end of class Tile
+
+
+	/**
+	 * Write a tile through a temporary file, so that a tile file is always complete.
+	 * @param image The image of the tile.
+	 * @param file The file of the tile.
+	 * @throws IOException If the file cannot be written.
+	 */
+	protected void write(BufferedImage image, File file) throws IOException {
+		file.getParentFile().mkdirs();
+		File temp = File.createTempFile("tile", ".tmp", file.getParentFile());
+		try {
+			ImageIO.write(image, "png", temp);
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			temp.delete();
+		}
+	} // end of write()
+
+} // end of class TilePyramid
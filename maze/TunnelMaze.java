@@ -14,55 +14,83 @@ public class TunnelMaze extends NormalMaze {
 		type = TUNNEL;
 	} // end of TunnelMaze()
 
+	/**
+	 * packed list of tunnel pairs, tunnel t connects cell tunnels[2 * t] and cell tunnels[2 * t + 1]
+	 */
+	protected int tunnels[];
+	
+	/**
+	 * open addressing index from the id of a tunnel end to its tunnel, -1 for empty slots
+	 */
+	protected int tunnelKeys[];
+	protected int tunnelIds[];
+
 	@Override
 	public void initMaze(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList) {
 		super.initMaze(rs, cs, entR, entC, exitR, exitC, tunnelList);
+		tunnels = new int[2 * tunnelList.size()];
 		for (int i = 0; i < tunnelList.size(); i++) {
-			map[tunnelList.get(i)[0]][tunnelList.get(i)[1]].tunnelTo = map[tunnelList.get(i)[2]][tunnelList.get(i)[3]];
-			map[tunnelList.get(i)[2]][tunnelList.get(i)[3]].tunnelTo = map[tunnelList.get(i)[0]][tunnelList.get(i)[1]];
+			tunnels[2 * i] = cellAt(tunnelList.get(i)[0], tunnelList.get(i)[1]);
+			tunnels[2 * i + 1] = cellAt(tunnelList.get(i)[2], tunnelList.get(i)[3]);
+			grid.set(tunnels[2 * i], WallGrid.TUNNEL_BIT);
+			grid.set(tunnels[2 * i + 1], WallGrid.TUNNEL_BIT);
+		}
+		
+		// index every end, the table is kept at most half full
+		int capacity = 4;
+		while (capacity < 2 * tunnels.length)
+			capacity <<= 1;
+		tunnelKeys = new int[capacity];
+		tunnelIds = new int[capacity];
+		Arrays.fill(tunnelKeys, -1);
+		for (int i = 0; i < tunnels.length; i++) {
+			int slot = slot(tunnels[i]);
+			while (tunnelKeys[slot] >= 0)
+				slot = (slot + 1) & (capacity - 1);
+			tunnelKeys[slot] = tunnels[i];
+			tunnelIds[slot] = i >> 1;
 		}
 	} // end of initMaze()
 	
+	/**
+	 * First slot of a cell id in the tunnel index.
+	 * @param id Id of a cell.
+	 * @return Slot to start probing from.
+	 */
+	protected int slot(int id) {
+		int h = id * 0x9E3779B9;
+		return (h ^ h >>> 16) & (tunnelKeys.length - 1);
+	} // end of slot()
+	
 	@Override
-	public boolean isPerfect() {
-		boolean visited[][] = new boolean[sizeR][sizeC];
-		Queue<Cell> queue = new LinkedList<Cell>();
-		
-		queue.add(entrance);
-		
-		while (!queue.isEmpty()) {
-			Cell cell = queue.poll();
-			Cell next = null;
-			visited[cell.r][cell.c] = true;
-			int visitedNeigh = 0;
-			if (cell.tunnelTo != null) {
-				next = cell.tunnelTo;
-				if (visited[next.r][next.c])
-					visitedNeigh += 1; 
-				else
-					queue.add(next);
-			}
-			for (int i = 0; i < NUM_DIR; i++) {
-				next = cell.neigh[i];
-				if (!isIn(next) || cell.wall[i].present)
-					continue;
-				if (visited[next.r][next.c])
-					visitedNeigh += 1; 
-				else
-					queue.add(next);
-			}
-			
-			if (visitedNeigh > 1)
-				return false;
-		}
-		
-		for (int i = 0; i < sizeR; i++)
-			for (int j = 0; j < sizeC; j++)
-				if (!visited[i][j])
-					return false;
-		
-		return true;
-	} // end of isPerfect()
+	public int tunnelId(int id) {
+		if (!grid.get(id, WallGrid.TUNNEL_BIT))
+			return -1;
+		for (int slot = slot(id); tunnelKeys[slot] >= 0; slot = (slot + 1) & (tunnelKeys.length - 1))
+			if (tunnelKeys[slot] == id)
+				return tunnelIds[slot];
+		return -1;
+	} // end of tunnelId()
+	
+	@Override
+	public int tunnelEnd(int t, int end) {
+		return tunnels[2 * t + end];
+	} // end of tunnelEnd()
+	
+	@Override
+	public int tunnelTo(int id) {
+		int t = tunnelId(id);
+		if (t < 0)
+			return -1;
+		return tunnels[2 * t] == id ? tunnels[2 * t + 1] : tunnels[2 * t];
+	} // end of tunnelTo()
+	
+	@Override
+	public void buildMap() {
+		super.buildMap();
+		for (int i = 0; i < tunnels.length; i++)
+			mapCell(tunnels[i]).tunnelTo = mapCell(tunnels[i ^ 1]);
+	} // end of buildMap()
 	
 	@Override
 	public void draw() {
@@ -77,89 +105,20 @@ public class TunnelMaze extends NormalMaze {
 		// draw the maze
 		super.draw();
 		
-		List<Cell> drawnTunnels = new ArrayList<Cell>();
-		
-		int numTunnelDrawn = 0;
-		
 		// draw the tunnels
-		for (int r = 0; r < sizeR; r++) {
-			for (int c = 0; c < sizeC; c++) {
-				if (map[r][c].tunnelTo != null && !drawnTunnels.contains(map[r][c])) {
-					StdDraw.setPenColor(colors[numTunnelDrawn % colors.length]);
-					StdDraw.setPenRadius(0.005);
-					StdDraw.line(c+0.9, r+0.1, c+0.9, r+0.9);
-					StdDraw.line(c+0.1, r+0.9, c+0.9, r+0.9);
-					StdDraw.line(c+0.1, r+0.1, c+0.1, r+0.9);
-					StdDraw.line(c+0.1, r+0.1, c+0.9, r+0.1);
-					int rr = map[r][c].tunnelTo.r;
-					int cc = map[r][c].tunnelTo.c;
-					StdDraw.line(cc+0.9, rr+0.1, cc+0.9, rr+0.9);
-					StdDraw.line(cc+0.1, rr+0.9, cc+0.9, rr+0.9);
-					StdDraw.line(cc+0.1, rr+0.1, cc+0.1, rr+0.9);
-					StdDraw.line(cc+0.1, rr+0.1, cc+0.9, rr+0.1);
-					drawnTunnels.add(map[r][c].tunnelTo);
-					StdDraw.setPenRadius();
-					numTunnelDrawn++;
-				}
+		for (int i = 0; i < sizeTunnel; i++) {
+			StdDraw.setPenColor(colors[i % colors.length]);
+			StdDraw.setPenRadius(0.005);
+			for (int j = 0; j < 2; j++) {
+				int r = row(tunnelEnd(i, j));
+				int c = col(tunnelEnd(i, j));
+				StdDraw.line(c+0.9, r+0.1, c+0.9, r+0.9);
+				StdDraw.line(c+0.1, r+0.9, c+0.9, r+0.9);
+				StdDraw.line(c+0.1, r+0.1, c+0.1, r+0.9);
+				StdDraw.line(c+0.1, r+0.1, c+0.9, r+0.1);
 			}
+			StdDraw.setPenRadius();
 		}
 	} // end of draw()
 
-
-        @Override
-        public boolean validate() {
-                boolean isValid = true;
-                int pathLength = 0;
-                int count = 0;
-
-                int stepCount[][] = new int[sizeR][sizeC];
-                Queue<Cell> queue = new LinkedList<Cell>();
-
-                queue.add(entrance);
-                stepCount[entrance.r][entrance.c] = 1;
-
-                while (!queue.isEmpty()) {
-                        Cell cell = queue.poll();
-                        count++;
-                        int step = stepCount[cell.r][cell.c];
-
-                        if (cell.tunnelTo != null && isRecorded[cell.tunnelTo.r][cell.tunnelTo.c] && stepCount[cell.tunnelTo.r][cell.tunnelTo.c] == 0) {
-                                stepCount[cell.tunnelTo.r][cell.tunnelTo.c] = step + 1;
-                                queue.add(cell.tunnelTo);
-                        }
-
-                        for (int i = 0; i < Maze.NUM_DIR; i++) {
-                                Cell next = cell.neigh[i];
-                                if (next != null && !cell.wall[i].present && isRecorded[next.r][next.c] && stepCount[next.r][next.c] == 0) {
-                                        stepCount[next.r][next.c] = step + 1;
-                                        queue.add(next);
-                                }
-                        }
-                }
-
-                if (stepCount[exit.r][exit.c] == 0) {
-                        isValid = false;
-                        System.out.println("[Validation] Exit is not reached.");
-                }
-                else {
-                        pathLength = stepCount[exit.r][exit.c];
-                }
-
-                for (int i = 0; i < sizeR; i++){
-                        for (int j = 0; j < sizeC; j++) {
-                                if (isValid && isRecorded[i][j] && stepCount[i][j] == 0) {
-                                        isValid = false;
-                                        System.out.println("[Validation] Visited cell not reachable.");
-                                }
-                        }
-                }
-
-                if (isValid) {
-                        System.out.println("[Validation] Number of cells visited = " + count);
-                        System.out.println("[Validation] Path length of the solution = " + pathLength);
-                }
-
-                return isValid;
-        } // end of validate()
-
 } // end of class TunnelMaze
@@ -0,0 +1,86 @@
+package maze;
+
+/**
+ * Disjoint sets over cell ids, with path compression and union by rank.
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ *
+ * Sets are kept in primitive arrays, so no object is allocated after construction.
+ */
+public class UnionFind {
+	/**
+	 * parent[i] is the parent of element i, roots are their own parents
+	 */
+	protected int parent[];
+
+	/**
+	 * upper bound of the height of the tree under each root
+	 */
+	protected byte rank[];
+
+	/**
+	 * number of disjoint sets
+	 */
+	protected int count;
+
+	/**
+	 * construct n singleton sets
+	 * @param n Number of elements.
+	 */
+	public UnionFind(int n) {
+		parent = new int[n];
+		rank = new byte[n];
+		for (int i = 0; i < n; i++)
+			parent[i] = i;
+		count = n;
+	} // end of UnionFind()
+
+
+	/**
+	 * Find the root of the set of an element, halving the path on the way.
+	 * @param x The element.
+	 * @return Root of the set.
+	 */
+	public int find(int x) {
+		while (parent[x] != x) {
+			parent[x] = parent[parent[x]];
+			x = parent[x];
+		}
+		return x;
+	} // end of find()
+
+
+	/**
+	 * Merge the sets of two elements.
+	 * @param a The first element.
+	 * @param b The second element.
+	 * @return True if they were in different sets. Otherwise false.
+	 */
+	public boolean union(int a, int b) {
+		a = find(a);
+		b = find(b);
+		if (a == b)
+			return false;
+		if (rank[a] < rank[b]) {
+			int t = a;
+			a = b;
+			b = t;
+		}
+		parent[b] = a;
+		if (rank[a] == rank[b])
+			rank[a]++;
+		count--;
+		return true;
+	} // end of union()
+
+
+	/**
+	 * Number of disjoint sets.
+	 * @return The number of sets.
+	 */
+	public int count() {
+		return count;
+	} // end of count()
+
+} // end of class UnionFind
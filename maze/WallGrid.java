@@ -0,0 +1,112 @@
+package maze;
+
+import java.lang.invoke.*;
+
+/**
+ * Bit-packed storage of the walls of a maze, the source of truth behind maze.Maze.
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ *
+ * Every cell owns BITS_PER_CELL bits of a long word, cell id i lives in word i / CELLS_PER_WORD.
+ * Bit k (k < 3) is set when the wall on direction k of the cell has been carved.
+ * The wall on direction k (k >= 3) is stored by the neighbor on direction k as its wall oppoDir[k],
+ * so a wall shared by two cells costs exactly one bit and a fresh grid is an all-wall maze.
+ */
+public class WallGrid {
+
+	/**
+	 * layout of a cell in a word
+	 */
+	public final static int BITS_PER_CELL = 4;
+	public final static int CELLS_PER_WORD = Long.SIZE / BITS_PER_CELL;
+	// spare bit of a cell, set if the cell is one end of a tunnel
+	public final static int TUNNEL_BIT = 3;
+	// the wall bits of all the cells of a word
+	public final static long WALL_BITS = 0x7777777777777777L;
+
+	// atomic access to the words, for grids written by several threads at once
+	protected final static VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+	/**
+	 * number of cell slots in the grid
+	 */
+	public final int size;
+
+	/**
+	 * the packed cells
+	 */
+	protected final long words[];
+
+	/**
+	 * construct an all-wall grid of size cell slots
+	 * @param size Number of cell slots.
+	 */
+	public WallGrid(int size) {
+		this.size = size;
+		words = new long[(size + CELLS_PER_WORD - 1) / CELLS_PER_WORD];
+	} // end of WallGrid()
+
+
+	/**
+	 * Read a bit of a cell.
+	 * @param id Id of the cell.
+	 * @param bit Index of the bit, a direction less than 3 or TUNNEL_BIT.
+	 * @return True if the bit is set. Otherwise false.
+	 */
+	public boolean get(int id, int bit) {
+		return (words[id >>> 4] >>> (((id & 15) << 2) + bit) & 1L) != 0;
+	} // end of get()
+
+
+	/**
+	 * Set a bit of a cell.
+	 * @param id Id of the cell.
+	 * @param bit Index of the bit, a direction less than 3 or TUNNEL_BIT.
+	 */
+	public void set(int id, int bit) {
+		words[id >>> 4] |= 1L << (((id & 15) << 2) + bit);
+	} // end of set()
+
+
+	/**
+	 * Set a bit of a cell atomically, safe when other threads write cells sharing the same word.
+	 * @param id Id of the cell.
+	 * @param bit Index of the bit, a direction less than 3 or TUNNEL_BIT.
+	 */
+	public void setAtomic(int id, int bit) {
+		WORDS.getAndBitwiseOr(words, id >>> 4, 1L << (((id & 15) << 2) + bit));
+	} // end of setAtomic()
+
+
+	/**
+	 * Clear a bit of a cell.
+	 * @param id Id of the cell.
+	 * @param bit Index of the bit, a direction less than 3 or TUNNEL_BIT.
+	 */
+	public void clear(int id, int bit) {
+		words[id >>> 4] &= ~(1L << (((id & 15) << 2) + bit));
+	} // end of clear()
+
+
+	/**
+	 * Number of carved walls, counted a word at a time.
+	 * @return The number of wall bits set.
+	 */
+	public long countWalls() {
+		long count = 0;
+		for (long word : words)
+			count += Long.bitCount(word & WALL_BITS);
+		return count;
+	} // end of countWalls()
+
+
+	/**
+	 * Number of bytes used by the packed cells.
+	 * @return The size of the grid in bytes.
+	 */
+	public long bytes() {
+		return (long) words.length * Long.BYTES;
+	} // end of bytes()
+
+} // end of class WallGrid
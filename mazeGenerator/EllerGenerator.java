@@ -0,0 +1,234 @@
+package mazeGenerator;
+
+import java.util.*;
+
+import maze.*;
+
+/**
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ * Class for generating maze row by row using Eller's algorithm.
+ */
+public class EllerGenerator implements MazeGenerator {
+
+	/**
+     * Use Eller's algorithm to generate a maze one row at a time.
+     *
+     * ******************************************************************************************
+     *
+     * ALGORITHM Eller
+     * Use Eller's algorithm on a normal maze with all walls in order to generate a perfect maze.
+     * Input: number of rows and columns, a sink receiving the rows.
+     * OUTPUT : the rows of a perfect maze.
+     *
+     * 1: put every cell of the first row in a set of its own
+     * 2: for (each row but the last)
+     * 3: {
+     * 4:	randomly carve east between neighbouring cells in different sets and merge the sets
+     * 5:	randomly carve north from cells, at least once from every set
+     * 6:	send the row to the sink
+     * 7:	cells above a passage join its set, other cells of the next row get sets of their own
+     * 8:}
+     * 9: carve east between all neighbouring cells of the last row in different sets
+     * 10:send the last row to the sink
+     * 11:a perfect maze is generated
+     *
+     * Only the sets of the current row are kept, as labels below the number of columns merged with a
+     * union-find, so memory is linear in the number of columns whatever the number of rows.
+     *
+     * ******************************************************************************************
+     *
+	 * generator properties
+	 */
+	protected Random random;
+	protected int cols;
+	// set label of every cell of the current row
+	protected int label[];
+	// union-find over the labels of the current row
+	protected int parent[];
+	// number of cells of each set seen so far, the cell picked to go north and whether one went north
+	protected int count[];
+	protected int pick[];
+	protected boolean wentNorth[];
+	// new label of each set for the next row, valid if stamp matches the row
+	protected int relabel[];
+	protected long stamp[];
+	// passages carved in the current row
+	protected BitSet east;
+	protected BitSet north;
+
+	public EllerGenerator() {
+		random = new Random();
+	} // end of EllerGenerator()
+
+	/**
+	 * Construct a generator which always generates the same maze for the same seed.
+	 *
+	 * @param seed Seed of the random generator.
+	 */
+	public EllerGenerator(long seed) {
+		random = new Random(seed);
+	} // end of EllerGenerator()
+
+	/**
+	 * Function that generate a perfect maze from an all-wall initialized maze.
+	 *
+	 * @param maze The reference of Maze object to generate, which must be a normal maze.
+	 */
+	public void generateMaze(final Maze maze) {
+
+		if (maze.type != Maze.NORMAL) {
+			throw new IllegalArgumentException("Eller's algorithm only generates normal mazes.");
+		}
+
+		generate(maze.sizeR, maze.sizeC, new RowSink() {
+			public void acceptRow(long r, BitSet east, BitSet north) {
+				for (int c = east.nextSetBit(0); c >= 0; c = east.nextSetBit(c + 1)) {
+					maze.carve(maze.cellAt((int) r, c), Maze.EAST);
+				}
+				for (int c = north.nextSetBit(0); c >= 0; c = north.nextSetBit(c + 1)) {
+					maze.carve(maze.cellAt((int) r, c), Maze.NORTH);
+				}
+			}
+		});
+
+	} // end of generateMaze()
+
+	/**
+	 * Stream a perfect normal maze to a sink without keeping it in memory.
+	 *
+	 * @param rows Number of rows.
+	 * @param cols Number of columns.
+	 * @param sink Receiver of the rows, from row 0 to row rows - 1.
+	 */
+	public void generate(long rows, int cols, RowSink sink) {
+
+		this.cols = cols;
+		label = new int[cols];
+		parent = new int[cols];
+		count = new int[cols];
+		pick = new int[cols];
+		wentNorth = new boolean[cols];
+		relabel = new int[cols];
+		stamp = new long[cols];
+		Arrays.fill(stamp, -1);
+		east = new BitSet(cols);
+		north = new BitSet(cols);
+
+		for (int c = 0; c < cols; c++) {
+			label[c] = c;
+		}
+
+		for (long r = 0; r < rows; r++) {
+			east.clear();
+			north.clear();
+			for (int l = 0; l < cols; l++) {
+				parent[l] = l;
+			}
+
+			if (r < rows - 1) {
+				joinRow(false);
+				goNorth();
+				sink.acceptRow(r, east, north);
+				nextRow(r);
+			} else {
+				joinRow(true);
+				sink.acceptRow(r, east, north);
+			}
+		}
+
+	} // end of generate()
+
+	/**
+	 * Carve east between neighbouring cells of different sets.
+	 *
+	 * @param all True to carve between all of them, on the last row. False to carve randomly.
+	 */
+	protected void joinRow(boolean all) {
+
+		for (int c = 0; c + 1 < cols; c++) {
+			int a = find(label[c]);
+			int b = find(label[c + 1]);
+			if (a != b && (all || random.nextBoolean())) {
+				east.set(c);
+				parent[b] = a;
+			}
+		}
+
+	} // end of joinRow()
+
+	/**
+	 * Randomly carve north, making sure every set of the row goes north at least once.
+	 */
+	protected void goNorth() {
+
+		for (int c = 0; c < cols; c++) {
+			int s = find(label[c]);
+			count[s] = 0;
+			wentNorth[s] = false;
+		}
+		for (int c = 0; c < cols; c++) {
+			int s = find(label[c]);
+			// reservoir sampling keeps a uniformly chosen cell of each set
+			if (random.nextInt(++count[s]) == 0) {
+				pick[s] = c;
+			}
+			if (random.nextBoolean()) {
+				north.set(c);
+				wentNorth[s] = true;
+			}
+		}
+		for (int c = 0; c < cols; c++) {
+			int s = find(label[c]);
+			if (!wentNorth[s]) {
+				north.set(pick[s]);
+				wentNorth[s] = true;
+			}
+		}
+
+	} // end of goNorth()
+
+	/**
+	 * Set up the labels of the next row, renumbered below cols so that labels never grow.
+	 *
+	 * @param r The row just finished.
+	 */
+	protected void nextRow(long r) {
+
+		int next = 0;
+		for (int c = 0; c < cols; c++) {
+			if (north.get(c)) {
+				int s = find(label[c]);
+				if (stamp[s] != r) {
+					stamp[s] = r;
+					relabel[s] = next++;
+				}
+				label[c] = relabel[s];
+			} else {
+				label[c] = -1;
+			}
+		}
+		for (int c = 0; c < cols; c++) {
+			if (label[c] < 0) {
+				label[c] = next++;
+			}
+		}
+
+	} // end of nextRow()
+
+	/**
+	 * Find the set of a label, halving the path on the way.
+	 *
+	 * @param l The label.
+	 * @return Root label of the set.
+	 */
+	protected int find(int l) {
+		while (parent[l] != l) {
+			parent[l] = parent[parent[l]];
+			l = parent[l];
+		}
+		return l;
+	} // end of find()
+
+} // end of class EllerGenerator
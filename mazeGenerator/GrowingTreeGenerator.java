@@ -11,8 +11,8 @@ import maze.*;
  * Class for generating maze using growing tree.
  */
 public class GrowingTreeGenerator implements MazeGenerator {
-	// Growing tree maze generator. As it is very general, here we implement as
-	// "usually pick the most recent cell, but occasionally pick a random cell"
+	// Growing tree maze generator. As it is very general, the way of picking the next cell is a
+	// GrowingTreePolicy, by default "usually pick the most recent cell, but occasionally pick a random cell"
 
 	/** 
      * Use growing tree to generate a maze.
@@ -28,7 +28,7 @@ public class GrowingTreeGenerator implements MazeGenerator {
      * 2: pick a random starting cell and add it to z and visited
      * 3: while (z.size() > 0)
      * 4: { 
-     * 5: 	10% to pick a random cell and 90% to pick the most recent cell from z and name it as b
+     * 5: 	pick a cell from z with the policy and name it as b
      * 6:   if (b has at least one unvisited neigbour)
      * 7:	{
      * 8:		randomly select a neighbour from neighUnvisited
@@ -42,18 +42,62 @@ public class GrowingTreeGenerator implements MazeGenerator {
      * 16:}		
      * 17:a perfect maze is generated 
      * 
+     * z is a RankedIntList ordered from the oldest to the newest cell, which keeps the order when a
+     * cell is removed from the middle, so the newest, oldest and middle cells are the ones the
+     * policies name. Picking and removing a cell are O(log n) per step, O(1) only when the policy
+     * picks the newest or the oldest cell. A cell reaching a tunnel also visits the other end of the
+     * tunnel and adds it to z.
+     * 
      * ******************************************************************************************
      * 
 	 * generator properties
 	 */
 	// 10% to pick a random cell and 90% to pick the most recent cell
-	double threshold = 0.1;
+	public final static GrowingTreePolicy DEFAULT_POLICY = GrowingTreePolicy.mix(0.1, GrowingTreePolicy.RANDOM,
+			GrowingTreePolicy.NEWEST);
+
+	protected GrowingTreePolicy policy;
+	protected int startCell = -1;
+	protected Random random;
+	protected RankedIntList z;
+	// the cells which the generator has visited
+	protected BitSet visited;
+	// the directions of unvisited neighbouring cells, used for random picking
+	protected int neighUnvisited[] = new int[Maze.NUM_DIR];
+
+	public GrowingTreeGenerator() {
+		this(DEFAULT_POLICY);
+	} // end of GrowingTreeGenerator()
+
+	/**
+	 * Construct a generator which always generates the same maze for the same seed.
+	 * 
+	 * @param seed Seed of the random generator.
+	 */
+	public GrowingTreeGenerator(long seed) {
+		this(DEFAULT_POLICY, seed);
+	} // end of GrowingTreeGenerator()
+
+	/**
+	 * Construct a generator picking cells with a policy.
+	 * 
+	 * @param policy The way of picking the next cell.
+	 */
+	public GrowingTreeGenerator(GrowingTreePolicy policy) {
+		this.policy = policy;
+		random = new Random();
+	} // end of GrowingTreeGenerator()
 
-	protected Cell startCell = null;
-	protected Random random = new Random();
-	protected Stack<Cell> z = new Stack<Cell>();
-	// the collection of all the visited cells, used for termination
-	protected ArrayList<Cell> visited = new ArrayList<Cell>();
+	/**
+	 * Construct a generator picking cells with a policy, which always generates the same maze for the same seed.
+	 * 
+	 * @param policy The way of picking the next cell.
+	 * @param seed Seed of the random generator.
+	 */
+	public GrowingTreeGenerator(GrowingTreePolicy policy, long seed) {
+		this.policy = policy;
+		random = new Random(seed);
+	} // end of GrowingTreeGenerator()
 
 	/**
 	 * Generate a new maze.
@@ -62,25 +106,15 @@ public class GrowingTreeGenerator implements MazeGenerator {
 	 */
 	public void generateMaze(Maze maze) {
 
-		double numDouble = -1;
-		int numInt = -1;
+		visited = new BitSet(maze.sizeR * maze.stride);
+		// every cell is added to z once
+		z = new RankedIntList(maze.sizeR * maze.stride);
 
 		startMaze(maze);
-
-		z.add(startCell);
-		visited.add(startCell);
+		visit(maze, startCell);
 
 		while (!z.isEmpty()) {
-			
-			// usually pick the most recent cell, occasionally pick a random cell from z
-			numDouble = random.nextDouble(); // 0 - 1
-			if (numDouble < threshold) {
-				numInt = random.nextInt(z.size());
-				startCell = z.get(numInt);
-			} else {
-				startCell = z.peek();
-			}
-			growingTree(maze, startCell);
+			growingTree(maze, policy.pick(z.size(), random));
 		}
 
 	} // end of generateMaze()
@@ -95,57 +129,61 @@ public class GrowingTreeGenerator implements MazeGenerator {
 		int r, c = 0;
 
 		// pick a random starting cell
-		while (startCell == null) {
+		while (startCell < 0) {
 			r = random.nextInt(maze.sizeR);
 			c = random.nextInt(maze.sizeC);
-			startCell = maze.map[r][c];
+			startCell = maze.cellAt(r, c);
 		}
 
 	} // end of startMaze()
 
 	/**
-	 * Function for using modified prim's algorithm.
+	 * Function for using growing tree algorithm.
 	 * 
 	 * @param maze
 	 *            The reference of Maze object to run growing tree algorithm.
-	 * @param b
-	 *            The cell picked from z
+	 * @param i
+	 *            The index of the cell picked from z
 	 */
-	public void growingTree(Maze maze, Cell b) {
-
-		ArrayList<Cell> neighUnvisited = new ArrayList<Cell>();
-		Cell neighCell = null;
+	public void growingTree(Maze maze, int i) {
 
-		int i = 0, j = 0;
+		int b = z.get(i);
+		int numUnvisited = 0;
+		int neighCell = -1;
 
-		int num = -1, dir = -1;
+		int dir = -1;
 
 		// add the unvisited neighbouring cells of cell b to neighUnvisited
-		for (i = 0; i < Maze.NUM_DIR; i++) {
-			if (b.neigh[i] != null && !visited.contains(b.neigh[i])) {
-				neighUnvisited.add(b.neigh[i]);
+		for (int k : maze.dirs) {
+			neighCell = maze.neighbor(b, k);
+			if (neighCell >= 0 && !visited.get(neighCell)) {
+				neighUnvisited[numUnvisited++] = k;
 			}
 		}
 
-		if (!neighUnvisited.isEmpty()) {
-			num = random.nextInt(neighUnvisited.size());
-			neighCell = neighUnvisited.get(num);
-
-			neighUnvisited.clear();
-			for (j = 0; j < Maze.NUM_DIR; j++) {
-				if (b.neigh[j] == neighCell) {
-					dir = j;
-				}
-			}
-			b.wall[dir].present = false;
-			neighCell.wall[Maze.oppoDir[dir]].present = false;
-
-			z.add(neighCell);
-			if (!visited.contains(neighCell)) {
-				visited.add(neighCell);
-			}
+		if (numUnvisited > 0) {
+			dir = neighUnvisited[random.nextInt(numUnvisited)];
+			maze.carve(b, dir);
+			visit(maze, maze.neighbor(b, dir));
 		} else {
-			z.remove(b);
+			z.remove(i);
 		}
 	} // end of growingTree()
-} // end of class GrowingTreeGenerator
+
+	/**
+	 * Mark a cell as visited and add it to z, going through its tunnel if it has one.
+	 * 
+	 * @param maze The reference of Maze object to generate.
+	 * @param cell Id of the cell.
+	 */
+	protected void visit(Maze maze, int cell) {
+		visited.set(cell);
+		z.addLast(cell);
+
+		int other = maze.tunnelTo(cell);
+		if (other >= 0 && !visited.get(other)) {
+			visited.set(other);
+			z.addLast(other);
+		}
+	} // end of visit()
+} // end of class GrowingTreeGenerator
\ No newline at end of file
@@ -0,0 +1,52 @@
+package mazeGenerator;
+
+import java.util.Random;
+
+/**
+ * Interface of the way growing tree picks the next cell among its active cells.
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ */
+public interface GrowingTreePolicy
+{
+	/**
+	 * Pick the index of the next cell.
+	 * @param size Number of active cells, at least 1. Index 0 is the oldest and size - 1 the newest.
+	 * @param random The random generator of the generator.
+	 * @return Index of the picked cell, from 0 to size - 1.
+	 */
+	public int pick(int size, Random random);
+
+	/**
+	 * Always the newest cell, which behaves like the recursive backtracker.
+	 */
+	public final static GrowingTreePolicy NEWEST = (size, random) -> size - 1;
+
+	/**
+	 * Always the oldest cell, which gives long straight corridors.
+	 */
+	public final static GrowingTreePolicy OLDEST = (size, random) -> 0;
+
+	/**
+	 * A random cell, which behaves like Prim's algorithm.
+	 */
+	public final static GrowingTreePolicy RANDOM = (size, random) -> random.nextInt(size);
+
+	/**
+	 * The cell in the middle.
+	 */
+	public final static GrowingTreePolicy MIDDLE = (size, random) -> size / 2;
+
+	/**
+	 * Mix two policies, e.g. mix(0.1, RANDOM, NEWEST) picks a random cell 10% of the time and the newest otherwise.
+	 * Mixes can be mixed again for more than two policies.
+	 * @param weight Probability of using first.
+	 * @param first The policy used with probability weight.
+	 * @param second The policy used otherwise.
+	 * @return The mixed policy.
+	 */
+	public static GrowingTreePolicy mix(double weight, GrowingTreePolicy first, GrowingTreePolicy second) {
+		return (size, random) -> random.nextDouble() < weight ? first.pick(size, random) : second.pick(size, random);
+	} // end of mix()
+} // end of interface GrowingTreePolicy
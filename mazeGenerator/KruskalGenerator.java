@@ -0,0 +1,136 @@
+package mazeGenerator;
+
+import java.util.*;
+
+import maze.*;
+
+/**
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ * Class for generating maze using Kruskal's algorithm.
+ */
+public class KruskalGenerator implements MazeGenerator {
+
+	/**
+     * Use randomised Kruskal's algorithm to generate a maze.
+     *
+     * ******************************************************************************************
+     *
+     * ALGORITHM Kruskal
+     * Use Kruskal's algorithm on a maze with all walls in order to generate a perfect maze.
+     * Input: Maze maze.
+     * OUTPUT : Maze maze which is perfect.
+     *
+     * 1: put every cell in a set of its own
+     * 2: merge the sets of the two ends of each tunnel
+     * 3: shuffle all the walls between two cells
+     * 4: for (each wall w in order)
+     * 5: {
+     * 6:	if (the cells on both sides of w are in different sets)
+     * 7:	{
+     * 8:		carve w
+     * 9:		merge the two sets
+     * 10:	}
+     * 11:}
+     * 12:a perfect maze is generated
+     *
+     * A wall is encoded as id * walls per cell + k, where k indexes the directions a cell owns
+     * in the wall grid (east and north, plus northeast on a hex maze).
+     *
+     * ******************************************************************************************
+     *
+	 * generator properties
+	 */
+	protected Random random;
+	// directions owned by a cell, the walls on the other directions belong to the neighbours
+	protected int ownDirs[];
+	// the walls between two cells, in random order
+	protected int walls[];
+	protected UnionFind sets;
+
+	public KruskalGenerator() {
+		random = new Random();
+	} // end of KruskalGenerator()
+
+	/**
+	 * Construct a generator which always generates the same maze for the same seed.
+	 *
+	 * @param seed Seed of the random generator.
+	 */
+	public KruskalGenerator(long seed) {
+		random = new Random(seed);
+	} // end of KruskalGenerator()
+
+	/**
+	 * Function that generate a perfect maze from an all-wall initialized maze.
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 */
+	public void generateMaze(Maze maze) {
+
+		int numCells = maze.sizeR * maze.sizeC;
+
+		sets = new UnionFind(numCells);
+
+		// the tunnels are passages already
+		for (int t = 0; t < maze.sizeTunnel; t++) {
+			if (maze.tunnelEnd(t, 0) >= 0) {
+				sets.union(maze.tunnelEnd(t, 0), maze.tunnelEnd(t, 1));
+			}
+		}
+
+		collectWalls(maze);
+		shuffleWalls();
+
+		for (int i = 0; i < walls.length && sets.count() > 1; i++) {
+			int cell = walls[i] / ownDirs.length;
+			int dir = ownDirs[walls[i] % ownDirs.length];
+			if (sets.union(cell, maze.neighbor(cell, dir))) {
+				maze.carve(cell, dir);
+			}
+		}
+
+	} // end of generateMaze()
+
+	/**
+	 * Put every wall between two cells into walls[].
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 */
+	protected void collectWalls(Maze maze) {
+
+		int numCells = maze.sizeR * maze.sizeC;
+		int numWalls = 0;
+
+		ownDirs = maze.type == Maze.HEX ? new int[] { Maze.EAST, Maze.NORTHEAST, Maze.NORTHWEST }
+				: new int[] { Maze.EAST, Maze.NORTH };
+
+		// walls on the boundary have no cell on the other side
+		walls = new int[numCells * ownDirs.length];
+		for (int cell = 0; cell < numCells; cell++) {
+			for (int k = 0; k < ownDirs.length; k++) {
+				if (maze.neighbor(cell, ownDirs[k]) >= 0) {
+					walls[numWalls++] = cell * ownDirs.length + k;
+				}
+			}
+		}
+		walls = Arrays.copyOf(walls, numWalls);
+
+	} // end of collectWalls()
+
+	/**
+	 * Shuffle walls[] with Fisher-Yates.
+	 */
+	protected void shuffleWalls() {
+
+		for (int i = walls.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int t = walls[i];
+			walls[i] = walls[j];
+			walls[j] = t;
+		}
+
+	} // end of shuffleWalls()
+
+} // end of class KruskalGenerator
@@ -35,16 +35,39 @@ public class ModifiedPrimsGenerator implements MazeGenerator {
      * 11:}			
      * 12:a perfect maze is generated 
      * 
+     * f is an array with the position of every cell in it, so a cell is picked and removed in O(1)
+     * by moving the last cell of f into its place. Membership of z and f are bitmaps, so the
+     * generation is linear in the number of cells. A cell added to z brings the other end of its
+     * tunnel with it.
+     * 
      * ******************************************************************************************
      * 
 	 * generator properties
 	 */
-	protected Cell startCell = null;
-	protected Random random = new Random();
-	// Set z for adding cells
-	protected Set<Cell> z = new HashSet<Cell>();
-	// ArrayList f for storing all of the unvisited neighbours
-	protected ArrayList<Cell> f = new ArrayList<Cell>();
+	protected int startCell = -1;
+	protected Random random;
+	// the cells added to the maze so far
+	protected BitSet z;
+	// the unvisited neighbours of z, in f[0..numFrontier - 1], and the position of each of them in f
+	protected BitSet inFrontier;
+	protected int f[];
+	protected int pos[];
+	protected int numFrontier = 0;
+	// the directions of the neighbours of a cell in z, used for random picking
+	protected int neighInMaze[] = new int[Maze.NUM_DIR];
+
+	public ModifiedPrimsGenerator() {
+		random = new Random();
+	} // end of ModifiedPrimsGenerator()
+
+	/**
+	 * Construct a generator which always generates the same maze for the same seed.
+	 * 
+	 * @param seed Seed of the random generator.
+	 */
+	public ModifiedPrimsGenerator(long seed) {
+		random = new Random(seed);
+	} // end of ModifiedPrimsGenerator()
 
 	/**
 	 * Function that generate a perfect maze from an all-wall initialized maze.
@@ -53,18 +76,18 @@ public class ModifiedPrimsGenerator implements MazeGenerator {
 	 */
 	public void generateMaze(Maze maze) {
 
-		int i = 0;
+		int numCells = maze.sizeR * maze.sizeC;
+
+		z = new BitSet(numCells);
+		inFrontier = new BitSet(numCells);
+		f = new int[numCells];
+		pos = new int[numCells];
+		numFrontier = 0;
 
 		startMaze(maze);
-		z.add(startCell);
-		
-		// add all neighbours
-		for (i = 0; i < Maze.NUM_DIR; i++) {
-			if (startCell.neigh[i] != null && !f.contains(startCell.neigh[i])) {
-				f.add(startCell.neigh[i]);
-			}
-		}
-		while (!f.isEmpty()) {
+		addToMaze(maze, startCell);
+
+		while (numFrontier > 0) {
 			modiPrim(maze);
 		}
 
@@ -80,10 +103,10 @@ public class ModifiedPrimsGenerator implements MazeGenerator {
 		int r, c = 0;
 
 		// pick a random starting cell
-		while (startCell == null) {
+		while (startCell < 0) {
 			r = random.nextInt(maze.sizeR);
 			c = random.nextInt(maze.sizeC);
-			startCell = maze.map[r][c];
+			startCell = maze.cellAt(r, c);
 		}
 
 	} // end of startMaze()
@@ -94,49 +117,80 @@ public class ModifiedPrimsGenerator implements MazeGenerator {
 	 * @param maze The reference of Maze object to run modified prim's algorithm.
 	 */
 	public void modiPrim(Maze maze) {
-		int num1 = -1, num2 = -1, dir = -1;
-		int i = 0, j = 0, k = 0, l = 0;
-		Cell b = null;
-		Cell c = null;
-		Set<Cell> x = new HashSet<Cell>();
-		
+		int numInMaze = 0, dir = -1;
+		int c = -1, next = -1;
+
 		// Select cell c from set f and delete.
-		num1 = random.nextInt(f.size());
-		c = f.remove(num1);
-		
-		// put all the neighbours of c to x in order to randomly pick one
-		for (i = 0; i < Maze.NUM_DIR; i++) {
-			if (z.contains(c.neigh[i])) {
-				x.add(c.neigh[i]);
+		c = f[random.nextInt(numFrontier)];
+		removeFrontier(c);
+
+		// put the directions of all the neighbours of c in z to neighInMaze in order to randomly pick one
+		for (int i : maze.dirs) {
+			next = maze.neighbor(c, i);
+			if (next >= 0 && z.get(next)) {
+				neighInMaze[numInMaze++] = i;
 			}
 		}
-		num2 = random.nextInt(x.size());
+		dir = neighInMaze[random.nextInt(numInMaze)];
+
+		// curve path between c and b
+		maze.carve(c, dir);
 
-		for (Cell cell : x) {
-			if (l == num2) {
-				b = cell;
+		// Add c to set Z and all c's neighbors to set F.
+		addToMaze(maze, c);
+	} //end of prims()
+
+	/**
+	 * Add a cell and the other end of its tunnel to z, and their unvisited neighbours to f.
+	 * 
+	 * @param maze The reference of Maze object to generate.
+	 * @param cell Id of the cell.
+	 */
+	protected void addToMaze(Maze maze, int cell) {
+		int other = maze.tunnelTo(cell);
+
+		z.set(cell);
+		if (other >= 0) {
+			// the other end is already connected through the tunnel
+			if (inFrontier.get(other)) {
+				removeFrontier(other);
 			}
-			l++;
+			z.set(other);
 		}
-		if (b != null) {
-			for (j = 0; j < Maze.NUM_DIR; j++) {
-				if (b == c.neigh[j]) {
-					dir = j;
-				}
-			}
-			
-			// curve path between c and b
-			c.wall[dir].present = false;
-			b.wall[Maze.oppoDir[dir]].present = false;
-			
-			// Add c to set Z and all c's neighbors to set F.
-			z.add(c);
-			for (k = 0; k < Maze.NUM_DIR; k++) {
-				if (c.neigh[k] != null && !f.contains(c.neigh[k]) && !z.contains(c.neigh[k])) {
-					f.add(c.neigh[k]);
-				}
+
+		addNeighbours(maze, cell);
+		if (other >= 0) {
+			addNeighbours(maze, other);
+		}
+	} // end of addToMaze()
+
+	/**
+	 * Add the neighbours of a cell which are neither in z nor in f to f.
+	 * 
+	 * @param maze The reference of Maze object to generate.
+	 * @param cell Id of the cell.
+	 */
+	protected void addNeighbours(Maze maze, int cell) {
+		for (int k : maze.dirs) {
+			int next = maze.neighbor(cell, k);
+			if (next >= 0 && !z.get(next) && !inFrontier.get(next)) {
+				inFrontier.set(next);
+				pos[next] = numFrontier;
+				f[numFrontier++] = next;
 			}
 		}
-	} //end of prims()
+	} // end of addNeighbours()
+
+	/**
+	 * Remove a cell from f, moving the last cell of f into its place.
+	 * 
+	 * @param cell Id of the cell.
+	 */
+	protected void removeFrontier(int cell) {
+		int last = f[--numFrontier];
+		f[pos[cell]] = last;
+		pos[last] = pos[cell];
+		inFrontier.clear(cell);
+	} // end of removeFrontier()
 
 } // end of class ModifiedPrimsGenerator
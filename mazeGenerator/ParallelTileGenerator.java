@@ -0,0 +1,455 @@
+package mazeGenerator;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.LongFunction;
+
+import maze.*;
+
+/**
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ * Class for generating maze in parallel tiles with any other generator.
+ */
+public class ParallelTileGenerator implements MazeGenerator {
+
+	/**
+     * Split the maze into tiles, generate every tile on its own and stitch the tiles together.
+     *
+     * ******************************************************************************************
+     *
+     * ALGORITHM parallel tiles
+     * Generate a perfect maze from tiles generated concurrently by another generator.
+     * Input: Maze maze.
+     * OUTPUT : Maze maze which is perfect.
+     *
+     * 1: split the maze into tiles and give every tile a seed
+     * 2: in parallel, generate a perfect maze of each tile with its own tunnels and copy it into the maze
+     * 3: for (each tunnel between two tiles)
+     * 4: {
+     * 5:	if (the groups of the two ends are joined already)
+     * 6:	{
+     * 7:		cut the far end of the tunnel off its tile and rejoin the rest of that tile inside it
+     * 8:		make every part which cannot be rejoined inside the tile a group of its own
+     * 9:	}
+     * 10:	join the two groups
+     * 11:}
+     * 12:shuffle the walls between two groups
+     * 13:carve every wall joining two groups which are not joined yet
+     * 14:a perfect maze is generated
+     *
+     * A group is a tile, or a part of a tile left apart by step 8 when the cell cut off was the only
+     * way between the parts inside the tile. Step 13 is Kruskal's algorithm on the graph of groups,
+     * with the walls between tiles and the walls around the cells cut off and around the parts, so
+     * only the borders of the tiles are visited serially. Every seed comes from one SplittableRandom
+     * in tile order, so the maze only depends on the seed and the tile size, not on the number of threads.
+     *
+     * ******************************************************************************************
+     *
+	 * generator properties
+	 */
+	// creates the generator of a tile from its seed
+	protected LongFunction<MazeGenerator> factory;
+	protected int tileSize;
+	protected long seed;
+	protected ForkJoinPool pool;
+
+	// rows and columns of a tile, and number of tiles along the rows and the columns
+	protected int tileRows;
+	protected int tileCols;
+	protected int tilesR;
+	protected int tilesC;
+	protected long tileSeeds[];
+	// tunnels with both ends in a tile, in the coordinates of the tile
+	protected List<List<int[]>> localTunnels;
+	protected SplittableRandom random;
+	// groups joined so far, the tiles first then the parts of tiles
+	protected UnionFind tiles;
+	protected int numGroups;
+	// one bit per cell, set for a cell cut off its tile, which hangs from its tunnel, null if none
+	protected long detached[];
+	// group plus one of the cells of the parts of tiles, 0 for other cells, null if no tile is split
+	protected int pieces[];
+	// ends of the tunnels joining two groups, to join the groups again when a part leaves its group
+	protected int joinedTunnels[];
+	protected int numJoined;
+	// walls around the cells cut off and the parts, to stitch with the walls between tiles
+	protected long innerWalls[] = new long[64];
+	protected int numInnerWalls;
+
+	/**
+	 * Construct a generator running on the common pool.
+	 *
+	 * @param factory Creates the generator of a tile from its seed, e.g. RecursiveBacktrackerGenerator::new.
+	 * @param tileSize Number of rows and columns of a tile.
+	 * @param seed Seed of the random generator.
+	 */
+	public ParallelTileGenerator(LongFunction<MazeGenerator> factory, int tileSize, long seed) {
+		this(factory, tileSize, seed, ForkJoinPool.commonPool());
+	} // end of ParallelTileGenerator()
+
+	/**
+	 * Construct a generator running on a given pool.
+	 *
+	 * @param factory Creates the generator of a tile from its seed, e.g. RecursiveBacktrackerGenerator::new.
+	 * @param tileSize Number of rows and columns of a tile.
+	 * @param seed Seed of the random generator.
+	 * @param pool The pool generating the tiles.
+	 */
+	public ParallelTileGenerator(LongFunction<MazeGenerator> factory, int tileSize, long seed, ForkJoinPool pool) {
+		this.factory = factory;
+		this.tileSize = tileSize;
+		this.seed = seed;
+		this.pool = pool;
+	} // end of ParallelTileGenerator()
+
+	/**
+	 * Function that generate a perfect maze from an all-wall initialized maze.
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 */
+	public void generateMaze(Maze maze) {
+
+		// tiles have an even number of rows so that hex rows keep their parity inside a tile
+		tileRows = Math.min(maze.sizeR, tileSize + (tileSize & 1));
+		tileCols = Math.min(maze.sizeC, tileSize);
+		tilesR = (maze.sizeR + tileRows - 1) / tileRows;
+		tilesC = (maze.sizeC + tileCols - 1) / tileCols;
+		int numTiles = tilesR * tilesC;
+
+		random = new SplittableRandom(seed);
+		tileSeeds = new long[numTiles];
+		for (int t = 0; t < numTiles; t++) {
+			tileSeeds[t] = random.split().nextLong();
+		}
+
+		// sort the tunnels into tiles
+		localTunnels = new ArrayList<List<int[]>>(numTiles);
+		for (int t = 0; t < numTiles; t++) {
+			localTunnels.add(new ArrayList<int[]>());
+		}
+		int crossTunnels[] = new int[maze.sizeTunnel];
+		int numCross = 0;
+		for (int i = 0; i < maze.sizeTunnel; i++) {
+			int a = maze.tunnelEnd(i, 0);
+			int b = maze.tunnelEnd(i, 1);
+			if (a < 0) {
+				continue;
+			}
+			int t = tileOf(maze, a);
+			if (t == tileOf(maze, b)) {
+				int r0 = t / tilesC * tileRows;
+				int c0 = t % tilesC * tileCols;
+				int tunnel[] = { maze.row(a) - r0, maze.col(a) - c0, maze.row(b) - r0, maze.col(b) - c0 };
+				localTunnels.get(t).add(tunnel);
+			} else {
+				crossTunnels[numCross++] = i;
+			}
+		}
+
+		pool.invoke(new TileTask(maze, 0, numTiles));
+
+		tiles = new UnionFind(numTiles);
+		numGroups = numTiles;
+		detached = null;
+		pieces = null;
+		joinedTunnels = new int[2 * numCross];
+		numJoined = 0;
+		numInnerWalls = 0;
+		for (int i = 0; i < numCross; i++) {
+			joinTunnel(maze, maze.tunnelEnd(crossTunnels[i], 0), maze.tunnelEnd(crossTunnels[i], 1));
+		}
+		stitch(maze);
+
+	} // end of generateMaze()
+
+	/**
+	 * Task generating a range of tiles, split in halves down to single tiles.
+	 */
+	protected class TileTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		protected Maze maze;
+		protected int lo;
+		protected int hi;
+
+		protected TileTask(Maze maze, int lo, int hi) {
+			this.maze = maze;
+			this.lo = lo;
+			this.hi = hi;
+		} // end of TileTask()
+
+		@Override
+		protected void compute() {
+			if (hi - lo == 1) {
+				generateTile(maze, lo);
+			} else {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new TileTask(maze, lo, mid), new TileTask(maze, mid, hi));
+			}
+		} // end of compute()
+	} // end of class TileTask
+
+	/**
+	 * Generate a tile as a maze of its own and copy its passages into the maze.
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 * @param t Index of the tile.
+	 */
+	protected void generateTile(Maze maze, int t) {
+
+		int r0 = t / tilesC * tileRows;
+		int c0 = t % tilesC * tileCols;
+		int h = Math.min(tileRows, maze.sizeR - r0);
+		int w = Math.min(tileCols, maze.sizeC - c0);
+
+		Maze sub = maze.type == Maze.HEX ? new HexMaze() : maze.type == Maze.TUNNEL ? new TunnelMaze() : new NormalMaze();
+		sub.isVisu = false;
+		sub.initMaze(h, w, 0, 0, 0, 0, localTunnels.get(t));
+		factory.apply(tileSeeds[t]).generateMaze(sub);
+
+		// walls of the same word may belong to another tile
+		for (int lr = 0; lr < h; lr++) {
+			for (int lc = 0; lc < w; lc++) {
+				int local = sub.cellAt(lr, lc);
+				int cell = maze.cellAt(r0 + lr, c0 + lc);
+				for (int k : sub.dirs) {
+					if (k < 3 && sub.isOpen(local, k)) {
+						maze.carveConcurrent(cell, k);
+					}
+				}
+			}
+		}
+
+	} // end of generateTile()
+
+	/**
+	 * Join the groups of the two ends of a tunnel without closing a loop.
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 * @param a Id of one end.
+	 * @param b Id of the other end.
+	 */
+	protected void joinTunnel(Maze maze, int a, int b) {
+
+		if (tiles.union(group(maze, a), group(maze, b))) {
+			joinedTunnels[2 * numJoined] = a;
+			joinedTunnels[2 * numJoined + 1] = b;
+			numJoined++;
+		} else {
+			// the tunnel would close a loop through the groups, so b only hangs from the tunnel
+			detach(maze, b);
+			if (detached == null) {
+				detached = new long[(maze.sizeR * maze.stride + 63) >>> 6];
+			}
+			detached[b >>> 6] |= 1L << b;
+			addInnerWalls(maze, b);
+		}
+
+	} // end of joinTunnel()
+
+	/**
+	 * Cut a cell off its tile, then join the parts of the tile it leaves with walls inside the tile.
+	 * The parts which cannot be joined inside the tile become groups of their own.
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 * @param cell Id of the cell to cut off.
+	 */
+	protected void detach(Maze maze, int cell) {
+
+		int t = tileOf(maze, cell);
+		int r0 = t / tilesC * tileRows;
+		int c0 = t % tilesC * tileCols;
+		int h = Math.min(tileRows, maze.sizeR - r0);
+		int w = Math.min(tileCols, maze.sizeC - c0);
+
+		int parts[] = new int[Maze.NUM_DIR];
+		int numParts = 0;
+		for (int k : maze.dirs) {
+			if (maze.isOpen(cell, k)) {
+				parts[numParts++] = maze.neighbor(cell, k);
+				maze.rebuild(cell, k);
+			}
+		}
+		if (numParts < 2) {
+			return;
+		}
+
+		// label the cells of the tile with the part they are in, cells cut off earlier stay -1
+		int part[] = new int[h * w];
+		int queue[] = new int[h * w];
+		Arrays.fill(part, -1);
+		for (int i = 0; i < numParts; i++) {
+			int head = 0, tail = 0;
+			queue[tail++] = parts[i];
+			part[(maze.row(parts[i]) - r0) * w + maze.col(parts[i]) - c0] = i;
+			while (head < tail) {
+				int curr = queue[head++];
+				for (int k = -1; k < Maze.NUM_DIR; k++) {
+					int next = k < 0 ? maze.tunnelTo(curr) : maze.isOpen(curr, k) ? maze.neighbor(curr, k) : -1;
+					if (next < 0 || tileOf(maze, next) != t) {
+						continue;
+					}
+					int local = (maze.row(next) - r0) * w + maze.col(next) - c0;
+					if (part[local] < 0) {
+						part[local] = i;
+						queue[tail++] = next;
+					}
+				}
+			}
+		}
+
+		// carve walls between different parts until they are one tree again
+		UnionFind joined = new UnionFind(numParts);
+		for (int local = 0; local < h * w && joined.count() > 1; local++) {
+			if (part[local] < 0) {
+				continue;
+			}
+			int curr = maze.cellAt(r0 + local / w, c0 + local % w);
+			for (int k : maze.dirs) {
+				int next = maze.neighbor(curr, k);
+				if (k >= 3 || next < 0 || tileOf(maze, next) != t) {
+					continue;
+				}
+				int nextPart = part[(maze.row(next) - r0) * w + maze.col(next) - c0];
+				if (nextPart >= 0 && joined.union(part[local], nextPart)) {
+					maze.carve(curr, k);
+				}
+			}
+		}
+		if (joined.count() == 1) {
+			return;
+		}
+
+		// the cell was the only way between some parts inside the tile, the parts not joined to the
+		// first one become groups of their own, stitched to the rest through any wall around them
+		int newGroup[] = new int[numParts];
+		Arrays.fill(newGroup, -1);
+		for (int i = 0; i < numParts; i++) {
+			int root = joined.find(i);
+			if (root != joined.find(0) && newGroup[root] < 0) {
+				newGroup[root] = numGroups++;
+			}
+		}
+		for (int local = 0; local < h * w; local++) {
+			if (part[local] >= 0 && joined.find(part[local]) != joined.find(0)) {
+				int curr = maze.cellAt(r0 + local / w, c0 + local % w);
+				if (pieces == null) {
+					pieces = new int[maze.sizeR * maze.stride];
+				}
+				pieces[curr] = newGroup[joined.find(part[local])] + 1;
+				addInnerWalls(maze, curr);
+			}
+		}
+
+		// a part may hold the end of a tunnel joined before, so join the groups again from the tunnels
+		tiles = new UnionFind(numGroups);
+		for (int i = 0; i < numJoined; i++) {
+			tiles.union(group(maze, joinedTunnels[2 * i]), group(maze, joinedTunnels[2 * i + 1]));
+		}
+
+	} // end of detach()
+
+	/**
+	 * Add the walls around a cell to the walls to stitch.
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 * @param cell Id of the cell.
+	 */
+	protected void addInnerWalls(Maze maze, int cell) {
+		for (int k : maze.dirs) {
+			int next = maze.neighbor(cell, k);
+			if (next >= 0) {
+				// a wall is owned by the cell below or west of it
+				if (numInnerWalls == innerWalls.length) {
+					innerWalls = Arrays.copyOf(innerWalls, 2 * numInnerWalls);
+				}
+				innerWalls[numInnerWalls++] = k < 3 ? (long) cell * Maze.NUM_DIR + k : (long) next * Maze.NUM_DIR + Maze.oppoDir[k];
+			}
+		}
+	} // end of addInnerWalls()
+
+	/**
+	 * Carve walls between tiles with Kruskal's algorithm on the graph of tiles.
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 */
+	protected void stitch(Maze maze) {
+
+		// walls are owned by the cell below or west of them, so only the top row and the sides of a tile own border walls
+		long walls[] = new long[64];
+		int numWalls = 0;
+		for (int t = 0; t < tilesR * tilesC; t++) {
+			int r0 = t / tilesC * tileRows;
+			int c0 = t % tilesC * tileCols;
+			int h = Math.min(tileRows, maze.sizeR - r0);
+			int w = Math.min(tileCols, maze.sizeC - c0);
+			for (int i = 0; i < w + 2 * (h - 1); i++) {
+				int cell = i < w ? maze.cellAt(r0 + h - 1, c0 + i)
+						: maze.cellAt(r0 + (i - w) / 2, (i - w) % 2 == 0 ? c0 : c0 + w - 1);
+				for (int k : maze.dirs) {
+					int next = maze.neighbor(cell, k);
+					if (k < 3 && next >= 0 && tileOf(maze, next) != t) {
+						if (numWalls == walls.length) {
+							walls = Arrays.copyOf(walls, 2 * numWalls);
+						}
+						walls[numWalls++] = (long) cell * Maze.NUM_DIR + k;
+					}
+				}
+			}
+		}
+
+		if (numWalls + numInnerWalls > walls.length) {
+			walls = Arrays.copyOf(walls, numWalls + numInnerWalls);
+		}
+		System.arraycopy(innerWalls, 0, walls, numWalls, numInnerWalls);
+		numWalls += numInnerWalls;
+
+		for (int i = numWalls - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			long w = walls[i];
+			walls[i] = walls[j];
+			walls[j] = w;
+		}
+
+		for (int i = 0; i < numWalls && tiles.count() > 1; i++) {
+			int cell = (int) (walls[i] / Maze.NUM_DIR);
+			int k = (int) (walls[i] % Maze.NUM_DIR);
+			if (tiles.union(group(maze, cell), group(maze, maze.neighbor(cell, k)))) {
+				maze.carve(cell, k);
+			}
+		}
+
+	} // end of stitch()
+
+	/**
+	 * Tile of a cell.
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 * @param cell Id of the cell.
+	 * @return Index of the tile.
+	 */
+	protected int tileOf(Maze maze, int cell) {
+		return maze.row(cell) / tileRows * tilesC + maze.col(cell) / tileCols;
+	} // end of tileOf()
+
+	/**
+	 * Group a cell is connected through, which differs from its own tile for a cell cut off its tile
+	 * and for a cell of a part of a tile.
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 * @param cell Id of the cell.
+	 * @return Index of the group.
+	 */
+	protected int group(Maze maze, int cell) {
+		if (detached != null && (detached[cell >>> 6] & 1L << cell) != 0) {
+			// the cell hangs from its tunnel, whose other end is never cut off
+			return group(maze, maze.tunnelTo(cell));
+		}
+		if (pieces != null && pieces[cell] > 0) {
+			return pieces[cell] - 1;
+		}
+		return tileOf(maze, cell);
+	} // end of group()
+
+} // end of class ParallelTileGenerator
@@ -30,21 +30,44 @@ public class RecursiveBacktrackerGenerator implements MazeGenerator {
      * 6: 	pick a random unvisited neighbouring cell
      * 7: 	carve path between them
      * 8:	move to that neighbour
-     * 9:	repeat 5~8 as recursion
+     * 9:	repeat 5~8 until a cell without unvisited neighbours is reached
      * 10:	backtrack to a cell that has unvisited neighbours
      * 11:}			
      * 12:a perfect maze is generated 
      * 
+     * The recursion is unrolled: the path is a stack of the directions moved along, so memory
+     * is one byte per step on the path plus one bit per cell, and no object is allocated per step.
+     * 
      * ******************************************************************************************
      * 
 	 * generator properties
 	 */
-	protected Cell startCell = null;
-	protected Random random = new Random();
-	// the collection of cells which the generator has gone through by order, used for backtracking
-	protected Stack<Cell> path = new Stack<Cell>();
-	// the collection of cells which the generator has visited
-	protected ArrayList<Cell> visited = new ArrayList<Cell>();
+	// step pushed on the path when the generator goes through a tunnel
+	protected final static byte TUNNEL_STEP = Maze.NUM_DIR;
+
+	protected int startCell = -1;
+	protected Random random;
+	// the directions the generator has moved along by order, used for backtracking
+	protected byte path[] = new byte[64];
+	protected int pathSize = 0;
+	// the cells which the generator has visited
+	protected BitSet visited;
+	protected int numVisited = 0;
+	// the directions of unvisited neighbouring cells, used for random picking
+	protected int neighUnvisited[] = new int[Maze.NUM_DIR];
+
+	public RecursiveBacktrackerGenerator() {
+		random = new Random();
+	} // end of RecursiveBacktrackerGenerator()
+
+	/**
+	 * Construct a generator which always generates the same maze for the same seed.
+	 * 
+	 * @param seed Seed of the random generator.
+	 */
+	public RecursiveBacktrackerGenerator(long seed) {
+		random = new Random(seed);
+	} // end of RecursiveBacktrackerGenerator()
 
 	/**
 	 * Function that generate a perfect maze from an all-wall initialized maze.
@@ -53,24 +76,25 @@ public class RecursiveBacktrackerGenerator implements MazeGenerator {
 	 */
 	public void generateMaze(Maze maze) {
 
-		int mazeSize = maze.sizeR * maze.sizeC;
+		long mazeSize = (long) maze.sizeR * maze.sizeC;
 
+		visited = new BitSet(maze.sizeR * maze.stride);
 		startMaze(maze);
 
-		path.push(startCell);
-		visited.add(startCell);
+		visit(startCell);
 
 		// If current cell is one of the end of the tunnel, go through the tunnel and move to the other end.
-		if (startCell.tunnelTo != null) {
-			startCell = startCell.tunnelTo;
-			path.push(startCell);
-			visited.add(startCell);
+		if (maze.tunnelTo(startCell) >= 0) {
+			startCell = maze.tunnelTo(startCell);
+			push(TUNNEL_STEP);
+			visit(startCell);
 		}
 
 		// If the generator has visited all the cells, generation completed.
-		while (visited.size() < mazeSize) {
-			recursion(maze, startCell);
-			backTracking();
+		while (numVisited < mazeSize) {
+			if (!advance(maze)) {
+				backTracking(maze);
+			}
 		}
 
 	} // end of generateMaze()
@@ -85,80 +109,93 @@ public class RecursiveBacktrackerGenerator implements MazeGenerator {
 		int r, c = 0;
 
 		// pick a random starting cell
-		while (startCell == null) {
+		while (startCell < 0) {
 			r = random.nextInt(maze.sizeR);
 			c = random.nextInt(maze.sizeC);
-			startCell = maze.map[r][c];
+			startCell = maze.cellAt(r, c);
 		}
 
 	} // end of startMaze()
 
 	/**
-	 * Pick a random unvisited neighbouring cell, then carve a path; continue until a cell that has no unvisited 
-	 * neighbours is reached.
+	 * Pick a random unvisited neighbouring cell of the current cell, carve a path and move to it.
 	 * 
-	 * @param maze The reference of Maze object to do the recursion.
-	 * @param currCell The current cell which the generator is visiting.
+	 * @param maze The reference of Maze object to generate.
+	 * @return True if the generator moved. False if the current cell has no unvisited neighbours.
 	 */
-	public void recursion(Maze maze, Cell currCell) {
-
-		// the collection of unvisited neighbouring cells, used for random picking
-		ArrayList<Cell> neighUnvisited = new ArrayList<Cell>();
-		Cell neighCell = null;
+	protected boolean advance(Maze maze) {
 
-		int i = 0, j = 0;
+		int numUnvisited = 0;
+		int neighCell = -1;
 
-		int num = -1, dir = -1;
+		int dir = -1;
 
-		for (i = 0; i < Maze.NUM_DIR; i++) {
-			if (currCell.neigh[i] != null && !visited.contains(currCell.neigh[i])) {
-				neighUnvisited.add(currCell.neigh[i]);
+		for (int i : maze.dirs) {
+			neighCell = maze.neighbor(startCell, i);
+			if (neighCell >= 0 && !visited.get(neighCell)) {
+				neighUnvisited[numUnvisited++] = i;
 			}
 		}
 
-		if (!neighUnvisited.isEmpty()) {
-			num = random.nextInt(neighUnvisited.size());
-			neighCell = neighUnvisited.get(num);
-
-			neighUnvisited.clear();
-			for (j = 0; j < Maze.NUM_DIR; j++) {
-				if (currCell.neigh[j] == neighCell) {
-					dir = j;
-					// carve the path between the two cells
-					currCell.wall[dir].present = false;
-					currCell = neighCell;
-					path.push(currCell);
-					visited.add(currCell);
-
-					currCell.wall[Maze.oppoDir[dir]].present = false;
-
-					if (currCell.tunnelTo != null) {
-						currCell = currCell.tunnelTo;
-						path.push(currCell);
-						visited.add(currCell);
-					}
-
-					recursion(maze, currCell);
-				}
-			}
+		if (numUnvisited == 0) {
+			return false;
+		}
+
+		dir = neighUnvisited[random.nextInt(numUnvisited)];
+
+		// carve the path between the two cells
+		maze.carve(startCell, dir);
+		startCell = maze.neighbor(startCell, dir);
+		push((byte) dir);
+		visit(startCell);
+
+		if (maze.tunnelTo(startCell) >= 0) {
+			startCell = maze.tunnelTo(startCell);
+			push(TUNNEL_STEP);
+			visit(startCell);
 		}
-	} // end of recursion()
+		return true;
+	} // end of advance()
 
 	/**
 	 * Backtrack a cell.
+	 * 
+	 * @param maze The reference of Maze object to generate.
 	 */
-	public void backTracking() {
+	public void backTracking(Maze maze) {
 
-		if (!path.isEmpty()) {
+		if (pathSize > 0) {
 			
-			// remove the cell the generator currently visited
-			path.pop();
-			if (!path.isEmpty()) {
-				
-				// get the latest cell the generator has visited (not the current cell)
-				startCell = path.peek();
+			// undo the latest step to get the cell visited before the current cell
+			byte step = path[--pathSize];
+			if (step == TUNNEL_STEP) {
+				startCell = maze.tunnelTo(startCell);
+			} else {
+				startCell = maze.neighbor(startCell, Maze.oppoDir[step]);
 			}
 		}
 	} // end of backTracking()
 
+	/**
+	 * Push a step on the path, growing it when full.
+	 * 
+	 * @param step Direction moved along or TUNNEL_STEP.
+	 */
+	protected void push(byte step) {
+		if (pathSize == path.length) {
+			path = Arrays.copyOf(path, path.length * 2);
+		}
+		path[pathSize++] = step;
+	} // end of push()
+
+	/**
+	 * Mark a cell as visited.
+	 * 
+	 * @param cell Id of the cell.
+	 */
+	protected void visit(int cell) {
+		visited.set(cell);
+		numVisited++;
+	} // end of visit()
+
 } // end of class RecursiveBacktrackerGenerator
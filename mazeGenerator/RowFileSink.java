@@ -0,0 +1,65 @@
+package mazeGenerator;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Row sink writing a streamed maze to a binary file.
+ * 
+ * @author Huirong Huang
+ * @author Yangming An
+ * 
+ * The file starts with the number of rows (long) and columns (int), followed by every row as
+ * the east bitmap then the north bitmap, each (columns + 7) / 8 bytes with cell c in bit c % 8 of byte c / 8.
+ */
+public class RowFileSink implements RowSink, Closeable {
+
+	protected DataOutputStream out;
+	// bytes of one bitmap in a row
+	protected byte buffer[];
+
+	/**
+	 * Open a file and write the header.
+	 * @param file The file to write.
+	 * @param rows Number of rows which will be written.
+	 * @param cols Number of columns of each row.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public RowFileSink(File file, long rows, int cols) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+		buffer = new byte[(cols + 7) / 8];
+		out.writeLong(rows);
+		out.writeInt(cols);
+	} // end of RowFileSink()
+
+
+	@Override
+	public void acceptRow(long r, BitSet east, BitSet north) {
+		try {
+			writeBitmap(east);
+			writeBitmap(north);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	} // end of acceptRow()
+
+
+	/**
+	 * Write one bitmap of a row.
+	 * @param bits The bitmap.
+	 * @throws IOException If the file cannot be written.
+	 */
+	protected void writeBitmap(BitSet bits) throws IOException {
+		Arrays.fill(buffer, (byte) 0);
+		for (int c = bits.nextSetBit(0); c >= 0 && c < buffer.length * 8; c = bits.nextSetBit(c + 1))
+			buffer[c >> 3] |= 1 << (c & 7);
+		out.write(buffer);
+	} // end of writeBitmap()
+
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	} // end of close()
+
+} // end of class RowFileSink
@@ -0,0 +1,21 @@
+package mazeGenerator;
+
+import java.util.BitSet;
+
+/**
+ * Interface of a consumer of the rows of a streamed maze.
+ * 
+ * @author Huirong Huang
+ * @author Yangming An
+ */
+public interface RowSink
+{
+	/**
+	 * Receive the passages carved in a row, rows arrive in order starting from row 0.
+	 * The bitmaps are reused for the next row, so they have to be copied if they are kept.
+	 * @param r Row of the cells.
+	 * @param east Bit c is set if cell (r, c) has a passage to cell (r, c + 1).
+	 * @param north Bit c is set if cell (r, c) has a passage to cell (r + 1, c).
+	 */
+	public void acceptRow(long r, BitSet east, BitSet north);
+} // end of interface RowSink
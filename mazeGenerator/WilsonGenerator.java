@@ -0,0 +1,173 @@
+package mazeGenerator;
+
+import java.util.*;
+
+import maze.*;
+
+/**
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ * Class for generating maze using Wilson's algorithm.
+ */
+public class WilsonGenerator implements MazeGenerator {
+
+	/**
+     * Use loop-erased random walks to generate a uniformly random maze.
+     *
+     * ******************************************************************************************
+     *
+     * ALGORITHM Wilson
+     * Use Wilson's algorithm on a maze with all walls in order to generate a perfect maze.
+     * Input: Maze maze.
+     * OUTPUT : Maze maze which is perfect.
+     *
+     * 1: inTree = {a random cell}
+     * 2: for (each cell c not in inTree)
+     * 3: {
+     * 4:	walk randomly from c until a cell of inTree is reached,
+     * 5:	remembering for every cell only the last direction it was left by
+     * 6:	follow the remembered directions from c again, carving them and adding the cells to inTree
+     * 7:}
+     * 8: a perfect maze is generated
+     *
+     * Keeping only the last direction of a cell erases the loops of the walk, and every perfect maze
+     * is then generated with the same probability. The two ends of a tunnel are one place of the maze,
+     * so the walk moves from them as if they were one cell with the neighbours of both ends.
+     *
+     * ******************************************************************************************
+     *
+	 * generator properties
+	 */
+	protected Random random;
+	// direction the walk last left each cell by, plus NUM_DIR if it left from the other end of a tunnel
+	protected byte next[];
+	// the cells of the maze carved so far
+	protected BitSet inTree;
+	// the moves from the current cell, used for random picking
+	protected int moves[] = new int[2 * Maze.NUM_DIR];
+
+	public WilsonGenerator() {
+		random = new Random();
+	} // end of WilsonGenerator()
+
+	/**
+	 * Construct a generator which always generates the same maze for the same seed.
+	 *
+	 * @param seed Seed of the random generator.
+	 */
+	public WilsonGenerator(long seed) {
+		random = new Random(seed);
+	} // end of WilsonGenerator()
+
+	/**
+	 * Function that generate a perfect maze from an all-wall initialized maze.
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 */
+	public void generateMaze(Maze maze) {
+
+		int numCells = maze.sizeR * maze.sizeC;
+
+		next = new byte[numCells];
+		inTree = new BitSet(numCells);
+
+		addToTree(maze, random.nextInt(numCells));
+
+		for (int cell = 0; cell < numCells; cell++) {
+			if (inTree.get(cell)) {
+				continue;
+			}
+
+			// random walk, the last move of a cell overwrites the loops through it
+			int curr = cell;
+			while (!inTree.get(curr)) {
+				int move = randomMove(maze, curr);
+				next[place(maze, curr)] = (byte) move;
+				curr = target(maze, curr, move);
+			}
+
+			// carve the loop-erased walk
+			curr = cell;
+			while (!inTree.get(curr)) {
+				addToTree(maze, curr);
+				int move = next[place(maze, curr)];
+				int from = move < Maze.NUM_DIR ? place(maze, curr) : maze.tunnelTo(place(maze, curr));
+				maze.carve(from, move % Maze.NUM_DIR);
+				curr = target(maze, curr, move);
+			}
+		}
+
+	} // end of generateMaze()
+
+	/**
+	 * Pick a random move from a cell, taking the other end of a tunnel into account.
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 * @param cell Id of the cell.
+	 * @return Direction to move along, plus NUM_DIR if it is a direction of the other end of the tunnel.
+	 */
+	protected int randomMove(Maze maze, int cell) {
+
+		int numMoves = 0;
+		int self = place(maze, cell);
+		int other = maze.tunnelTo(self);
+
+		for (int i : maze.dirs) {
+			int neighCell = maze.neighbor(self, i);
+			// a tunnel end next to the other end would only move the walk onto itself
+			if (neighCell >= 0 && neighCell != other) {
+				moves[numMoves++] = i;
+			}
+		}
+		if (other >= 0) {
+			for (int i : maze.dirs) {
+				int neighCell = maze.neighbor(other, i);
+				if (neighCell >= 0 && neighCell != self) {
+					moves[numMoves++] = i + Maze.NUM_DIR;
+				}
+			}
+		}
+
+		return moves[random.nextInt(numMoves)];
+	} // end of randomMove()
+
+	/**
+	 * The cell reached by a move.
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 * @param cell Id of the cell moved from.
+	 * @param move Move from randomMove().
+	 * @return Id of the cell moved to.
+	 */
+	protected int target(Maze maze, int cell, int move) {
+		int from = move < Maze.NUM_DIR ? place(maze, cell) : maze.tunnelTo(place(maze, cell));
+		return maze.neighbor(from, move % Maze.NUM_DIR);
+	} // end of target()
+
+	/**
+	 * The cell standing for the place of a cell, the smaller end for both ends of a tunnel.
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 * @param cell Id of the cell.
+	 * @return Id of the cell standing for its place.
+	 */
+	protected int place(Maze maze, int cell) {
+		int other = maze.tunnelTo(cell);
+		return other >= 0 && other < cell ? other : cell;
+	} // end of place()
+
+	/**
+	 * Add a cell and the other end of its tunnel to the tree.
+	 *
+	 * @param maze The reference of Maze object to generate.
+	 * @param cell Id of the cell.
+	 */
+	protected void addToTree(Maze maze, int cell) {
+		inTree.set(cell);
+		if (maze.tunnelTo(cell) >= 0) {
+			inTree.set(maze.tunnelTo(cell));
+		}
+	} // end of addToTree()
+
+} // end of class WilsonGenerator
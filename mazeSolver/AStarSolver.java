@@ -0,0 +1,213 @@
+package mazeSolver;
+
+import java.util.*;
+
+import maze.*;
+
+/**
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ * Class for solving maze using A* search.
+ */
+public class AStarSolver extends BFSSolver {
+
+	/**
+     * Use A* search to find the shortest path of a maze, expanding the cells nearest to the exit first.
+     *
+     * ******************************************************************************************
+     *
+     * ALGORITHM A*
+     * Perform an A* search from the entrance to find the shortest path to the exit.
+     * Input: Maze maze.
+     * OUTPUT : Maze maze which is solved.
+     *
+     * 1: open = {entrance}, g(entrance) = 0
+     * 2: while (open is not empty)
+     * 3: {
+     * 4:	take the cell c of open with the smallest g(c) + h(c)
+     * 5:	if (c is the exit) stop
+     * 6:	for (each neighbour n reached through an open wall or the tunnel)
+     * 7:	{
+     * 8:		if (g(c) + 1 < g(n))
+     * 9:			g(n) = g(c) + 1, remember the step from c to n and put n in open
+     * 10:	}
+     * 11:}
+     * 12:follow the steps back from the exit to get the shortest path and draw it
+     *
+     * h(c) is a lower bound of the distance from c to the exit: the Manhattan distance on a normal
+     * maze and the hex distance in axial coordinates on a hex maze. With tunnels, a path leaving a
+     * tunnel at end e still needs at least the distance from e to the exit, so h(c) is the smaller
+     * of the distance from c and of 1 plus the least distance from a tunnel end. That least distance
+     * is found by one pass over the tunnel ends and kept for the next solve of the same maze and
+     * exit, so no solve floods the grid and h costs O(1) per push. h never decreases by more than
+     * one per step, so a cell taken from open is final and the path is the shortest one.
+     *
+     * ******************************************************************************************
+     *
+	 * solver properties
+	 */
+	// steps from the entrance found so far
+	protected int g[];
+	protected IntMinHeap open;
+	protected boolean isHex;
+	// row and column (axial on a hex maze) of the exit
+	protected int exitR;
+	protected int exitQ;
+	// least distance from a tunnel end to the exit, -1 if the maze has no tunnels
+	protected int endBound = -1;
+	// maze, exit and number of tunnels endBound was computed for
+	protected Maze boundMaze;
+	protected int boundExit = -1;
+	protected int boundTunnels = -1;
+
+	/**
+	 * Find the shortest path from the entrance to the exit.
+	 *
+	 * @param maze The reference of Maze object to be solved.
+	 */
+	public void solveMaze(Maze maze) {
+
+		int numSlots = maze.sizeR * maze.stride;
+
+		isSolved = false;
+		numExplored = 0;
+		path = new int[0];
+		parent = new byte[numSlots];
+		Arrays.fill(parent, UNREACHED);
+		g = new int[numSlots];
+		Arrays.fill(g, Integer.MAX_VALUE);
+		open = new IntMinHeap(numSlots);
+
+		isHex = maze.type == Maze.HEX;
+		exitR = maze.row(maze.exitId);
+		exitQ = q(maze.exitId, maze);
+		boundEnds(maze);
+
+		parent[maze.entranceId] = START;
+		g[maze.entranceId] = 0;
+		open.push(maze.entranceId, heuristic(maze, maze.entranceId));
+
+		while (!open.isEmpty()) {
+			int cell = open.poll();
+			numExplored++;
+			if (cell == maze.exitId) {
+				break;
+			}
+
+			int next = maze.tunnelTo(cell);
+			if (next >= 0) {
+				reach(maze, cell, next, TUNNEL_STEP);
+			}
+			for (int i : maze.dirs) {
+				if (maze.isOpen(cell, i)) {
+					reach(maze, cell, maze.neighbor(cell, i), (byte) i);
+				}
+			}
+		}
+
+		if (parent[maze.exitId] != UNREACHED) {
+			isSolved = true;
+			tracePath(maze);
+			for (int cell : path) {
+				maze.drawFtPrt(cell);
+			}
+		}
+
+	} // end of solveMaze()
+
+	/**
+	 * Relax the step from a cell to its neighbour.
+	 *
+	 * @param maze The reference of Maze object to be solved.
+	 * @param cell Id of the expanded cell.
+	 * @param next Id of the neighbour.
+	 * @param step Direction from cell to next, or TUNNEL_STEP.
+	 */
+	protected void reach(Maze maze, int cell, int next, byte step) {
+		int steps = g[cell] + 1;
+		if (steps < g[next]) {
+			g[next] = steps;
+			parent[next] = step;
+			open.push(next, steps + heuristic(maze, next));
+		}
+	} // end of reach()
+
+	/**
+	 * Lower bound of the number of steps from a cell to the exit.
+	 *
+	 * @param maze The reference of Maze object to be solved.
+	 * @param cell Id of the cell.
+	 * @return The lower bound.
+	 */
+	protected int heuristic(Maze maze, int cell) {
+		int h = distance(maze.row(cell), q(cell, maze), exitR, exitQ);
+		if (endBound >= 0 && endBound + 1 < h) {
+			return endBound + 1;
+		}
+		return h;
+	} // end of heuristic()
+
+	/**
+	 * Compute endBound, the least distance from a tunnel end to the exit in the maze without walls,
+	 * unless it is already known for this maze and exit.
+	 *
+	 * @param maze The reference of Maze object to be solved.
+	 */
+	protected void boundEnds(Maze maze) {
+
+		if (maze == boundMaze && maze.exitId == boundExit && maze.sizeTunnel == boundTunnels) {
+			return;
+		}
+		boundMaze = maze;
+		boundExit = maze.exitId;
+		boundTunnels = maze.sizeTunnel;
+
+		endBound = -1;
+		for (int t = 0; t < maze.sizeTunnel; t++) {
+			for (int k = 0; k < 2; k++) {
+				int end = maze.tunnelEnd(t, k);
+				if (end < 0) {
+					continue;
+				}
+				int d = distance(maze.row(end), q(end, maze), exitR, exitQ);
+				if (endBound < 0 || d < endBound) {
+					endBound = d;
+				}
+			}
+		}
+
+	} // end of boundEnds()
+
+	/**
+	 * Column of a cell, axial on a hex maze so that every step changes the row and the column by at most one.
+	 *
+	 * @param cell Id of the cell.
+	 * @param maze The reference of Maze object to be solved.
+	 * @return The column.
+	 */
+	protected int q(int cell, Maze maze) {
+		int c = maze.col(cell);
+		return isHex ? HexMaze.axialCol(maze.row(cell), c) : c;
+	} // end of q()
+
+	/**
+	 * Number of steps between two cells of a maze without walls.
+	 *
+	 * @param r1 Row of the first cell.
+	 * @param q1 Column of the first cell, from q().
+	 * @param r2 Row of the second cell.
+	 * @param q2 Column of the second cell, from q().
+	 * @return The distance.
+	 */
+	protected int distance(int r1, int q1, int r2, int q2) {
+		int dr = r2 - r1;
+		int dq = q2 - q1;
+		if (isHex) {
+			// the hex steps change (r, q) by (0, 1), (1, 1), (1, 0) or their opposites
+			return (Math.abs(dr) + Math.abs(dq) + Math.abs(dq - dr)) / 2;
+		}
+		return Math.abs(dr) + Math.abs(dq);
+	} // end of distance()
+
+} // end of class AStarSolver
@@ -0,0 +1,166 @@
+package mazeSolver;
+
+import java.util.*;
+
+import maze.*;
+
+/**
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ * Class for solving maze using breadth first search.
+ */
+public class BFSSolver implements MazeSolver {
+
+	/**
+     * Use breadth first search to find the shortest path of a maze.
+     *
+     * ******************************************************************************************
+     *
+     * ALGORITHM BFS
+     * Perform a breadth first search from the entrance to find the shortest path to the exit.
+     * Input: Maze maze.
+     * OUTPUT : Maze maze which is solved.
+     *
+     * 1: queue = {entrance}, parent = {}
+     * 2: while (queue is not empty and the exit is not reached)
+     * 3: {
+     * 4:	take the first cell of the queue
+     * 5:	for (each neighbour reached through an open wall or the tunnel and not reached yet)
+     * 6:	{
+     * 7:		remember the step from the cell to the neighbour in parent
+     * 8:		add the neighbour to the queue
+     * 9:	}
+     * 10:}
+     * 11:follow parent back from the exit to get the shortest path and draw it
+     *
+     * parent holds one byte per cell, the direction stepped along to reach the cell, so the search
+     * allocates nothing per cell and runs in O(number of cells).
+     *
+     * ******************************************************************************************
+     *
+	 * solver properties
+	 */
+	// parent step of a cell reached through a tunnel, of the entrance, and of a cell not reached yet
+	protected final static byte TUNNEL_STEP = Maze.NUM_DIR;
+	protected final static byte START = Maze.NUM_DIR + 1;
+	protected final static byte UNREACHED = -1;
+
+	protected boolean isSolved = false;
+	protected int numExplored = 0;
+	// the step which reached every cell
+	protected byte parent[];
+	protected IntDeque queue;
+	// the cells of the shortest path, from the entrance to the exit
+	protected int path[] = new int[0];
+
+	/**
+	 * Find the shortest path from the entrance to the exit.
+	 *
+	 * @param maze The reference of Maze object to be solved.
+	 */
+	public void solveMaze(Maze maze) {
+
+		int numCells = maze.sizeR * maze.sizeC;
+
+		isSolved = false;
+		numExplored = 0;
+		path = new int[0];
+		parent = new byte[maze.sizeR * maze.stride];
+		Arrays.fill(parent, UNREACHED);
+		queue = new IntDeque(numCells);
+
+		parent[maze.entranceId] = START;
+		queue.addLast(maze.entranceId);
+
+		while (!queue.isEmpty() && parent[maze.exitId] == UNREACHED) {
+			int cell = queue.removeFirst();
+			numExplored++;
+
+			int next = maze.tunnelTo(cell);
+			if (next >= 0 && parent[next] == UNREACHED) {
+				parent[next] = TUNNEL_STEP;
+				queue.addLast(next);
+			}
+
+			for (int i : maze.dirs) {
+				if (maze.isOpen(cell, i)) {
+					next = maze.neighbor(cell, i);
+					if (parent[next] == UNREACHED) {
+						parent[next] = (byte) i;
+						queue.addLast(next);
+					}
+				}
+			}
+		}
+
+		if (parent[maze.exitId] != UNREACHED) {
+			isSolved = true;
+			tracePath(maze);
+			for (int cell : path) {
+				maze.drawFtPrt(cell);
+			}
+		}
+
+	} // end of solveMaze()
+
+	/**
+	 * Follow parent back from the exit and store the path from the entrance in path[].
+	 *
+	 * @param maze The reference of Maze object solved.
+	 */
+	protected void tracePath(Maze maze) {
+
+		int length = 1;
+		for (int cell = maze.exitId; parent[cell] != START; length++) {
+			cell = previous(maze, cell);
+		}
+
+		path = new int[length];
+		int cell = maze.exitId;
+		for (int i = length - 1; i >= 0; i--) {
+			path[i] = cell;
+			if (i > 0) {
+				cell = previous(maze, cell);
+			}
+		}
+
+	} // end of tracePath()
+
+	/**
+	 * The cell a cell was reached from.
+	 *
+	 * @param maze The reference of Maze object solved.
+	 * @param cell Id of a reached cell other than the entrance.
+	 * @return Id of its parent.
+	 */
+	protected int previous(Maze maze, int cell) {
+		byte step = parent[cell];
+		return step == TUNNEL_STEP ? maze.tunnelTo(cell) : maze.neighbor(cell, Maze.oppoDir[step]);
+	} // end of previous()
+
+	/**
+	 * Use after solveMaze(maze), the shortest path.
+	 * @return Ids of the cells of the path from the entrance to the exit, empty if not solved.
+	 */
+	public int[] path() {
+		return path;
+	} // end of path()
+
+	/**
+	 * Use after solveMaze(maze), to check whether the maze is solved.
+	 * @return True if solved. Otherwise false.
+	 */
+	public boolean isSolved() {
+		return isSolved;
+	} // end if isSolved()
+
+	/**
+	 * Use after solveMaze(maze), counting the number of cells explored in solving process.
+	 * @return The number of cells taken from the queue.
+	 */
+	public int cellsExplored() {
+		return numExplored;
+	} // end of cellsExplored()
+
+} // end of class BFSSolver
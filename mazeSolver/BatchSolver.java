@@ -0,0 +1,312 @@
+package mazeSolver;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+import maze.*;
+
+/**
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ * Class for solving many (source, target) pairs of the same maze in one go.
+ */
+public class BatchSolver {
+
+	/**
+     * Group the pairs by source and run one breadth first search per source, stopping when all its targets are found.
+     *
+     * ******************************************************************************************
+     *
+     * ALGORITHM batch BFS
+     * Find the shortest path of every pair, sharing the search between the pairs of a source.
+     * Input: Maze maze, pairs (source, target).
+     * OUTPUT : a route for every pair, group by group.
+     *
+     * 1: sort the pairs by source
+     * 2: for (each group of pairs with the same source s)
+     * 3: {
+     * 4:	mark the targets of the group, remaining = number of distinct targets
+     * 5:	queue = {s}
+     * 6:	while (queue is not empty and remaining > 0)
+     * 7:	{
+     * 8:		take the first cell of the queue
+     * 9:		for (each neighbour reached through an open wall or the tunnel and not reached yet)
+     * 10:		{
+     * 11:			remember the step to the neighbour in parent, add it to the queue
+     * 12:			if (the neighbour is marked) remaining = remaining - 1
+     * 13:		}
+     * 14:	}
+     * 15:	follow parent back from every target of the group to get its route
+     * 16:}
+     *
+     * The arrays of the search are allocated once per batch, not once per group: a cell belongs to the
+     * current search only if its stamp is the number of the group, so nothing is cleared between groups.
+     * The routes are streamed: a group is searched only when the stream asks for its first route.
+     *
+     * ******************************************************************************************
+     *
+	 * solver properties
+	 */
+	protected final static byte TUNNEL_STEP = BFSSolver.TUNNEL_STEP;
+	protected final static byte START = BFSSolver.START;
+
+	protected Maze maze;
+	// the step which reached every cell, valid if the stamp of the cell is the current group
+	protected byte parent[];
+	protected int reached[];
+	// stamp of the targets of the current group
+	protected int wanted[];
+	protected IntDeque queue;
+	protected int stamp = 0;
+
+	/**
+	 * Construct a solver of a maze.
+	 *
+	 * @param maze The maze, which is not changed while it is solved.
+	 */
+	public BatchSolver(Maze maze) {
+		int numSlots = maze.sizeR * maze.stride;
+
+		this.maze = maze;
+		parent = new byte[numSlots];
+		reached = new int[numSlots];
+		wanted = new int[numSlots];
+		queue = new IntDeque(maze.sizeR * maze.sizeC);
+	} // end of BatchSolver()
+
+	/**
+	 * Solve every pair and pass its route to a sink, group by group.
+	 *
+	 * @param sources Ids of the first cells of the pairs.
+	 * @param targets Ids of the last cells of the pairs.
+	 * @param sink Receiver of the routes.
+	 */
+	public void solve(int sources[], int targets[], Consumer<Route> sink) {
+		stream(sources, targets).forEach(sink);
+	} // end of solve()
+
+	/**
+	 * The routes of all the pairs, in order of source. The groups are searched as the stream is consumed.
+	 *
+	 * @param sources Ids of the first cells of the pairs.
+	 * @param targets Ids of the last cells of the pairs.
+	 * @return A sequential stream of one route per pair.
+	 */
+	public Stream<Route> stream(int sources[], int targets[]) {
+		if (sources.length != targets.length) {
+			throw new IllegalArgumentException("There are " + sources.length + " sources and " + targets.length + " targets.");
+		}
+
+		// pairs sorted by source, the index of the pair in the low bits
+		long order[] = new long[sources.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = (long) sources[i] << 32 | i;
+		}
+		Arrays.sort(order);
+
+		Spliterator<Route> routes = new Spliterators.AbstractSpliterator<Route>(order.length,
+				Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL) {
+			// next pair to search, and the routes of the last group searched
+			int next = 0;
+			Route group[] = new Route[0];
+			int numRoutes = 0;
+			int taken = 0;
+
+			@Override
+			public boolean tryAdvance(Consumer<? super Route> action) {
+				if (taken == numRoutes) {
+					if (next == order.length) {
+						return false;
+					}
+					int end = next + 1;
+					while (end < order.length && order[end] >>> 32 == order[next] >>> 32) {
+						end++;
+					}
+					group = solveGroup(sources, targets, order, next, end);
+					numRoutes = end - next;
+					taken = 0;
+					next = end;
+				}
+				action.accept(group[taken++]);
+				return true;
+			} // end of tryAdvance()
+		};
+		return StreamSupport.stream(routes, false);
+	} // end of stream()
+
+	/**
+	 * Search from the source of a group until all its targets are found, and trace their routes.
+	 *
+	 * @param sources Ids of the first cells of the pairs.
+	 * @param targets Ids of the last cells of the pairs.
+	 * @param order The pairs sorted by source.
+	 * @param from Position in order of the first pair of the group.
+	 * @param to Position in order after the last pair of the group.
+	 * @return The routes of the group.
+	 */
+	protected Route[] solveGroup(int sources[], int targets[], long order[], int from, int to) {
+
+		long start = System.nanoTime();
+		int source = sources[(int) order[from]];
+		int remaining = 0;
+		int numExplored = 0;
+
+		stamp++;
+		for (int i = from; i < to; i++) {
+			int target = targets[(int) order[i]];
+			if (wanted[target] != stamp) {
+				wanted[target] = stamp;
+				remaining++;
+			}
+		}
+
+		queue.clear();
+		queue.addLast(source);
+		reached[source] = stamp;
+		parent[source] = START;
+		if (wanted[source] == stamp) {
+			remaining--;
+		}
+
+		while (remaining > 0 && !queue.isEmpty()) {
+			int cell = queue.removeFirst();
+			numExplored++;
+
+			int next = maze.tunnelTo(cell);
+			if (next >= 0 && reached[next] != stamp) {
+				remaining -= reach(next, TUNNEL_STEP);
+			}
+			for (int i : maze.dirs) {
+				if (maze.isOpen(cell, i)) {
+					next = maze.neighbor(cell, i);
+					if (reached[next] != stamp) {
+						remaining -= reach(next, (byte) i);
+					}
+				}
+			}
+		}
+		long nanos = System.nanoTime() - start;
+
+		Route routes[] = new Route[to - from];
+		for (int i = from; i < to; i++) {
+			int index = (int) order[i];
+			int path[] = tracePath(source, targets[index]);
+			routes[i - from] = new Route(index, source, targets[index],
+					new SolveResult(maze, path.length > 0, path, numExplored, nanos, -1));
+		}
+		return routes;
+
+	} // end of solveGroup()
+
+	/**
+	 * Reach a cell of the current search.
+	 *
+	 * @param cell Id of the cell.
+	 * @param step Direction stepped along to reach it, or TUNNEL_STEP.
+	 * @return 1 if the cell is a target of the group, otherwise 0.
+	 */
+	protected int reach(int cell, byte step) {
+		reached[cell] = stamp;
+		parent[cell] = step;
+		queue.addLast(cell);
+		return wanted[cell] == stamp ? 1 : 0;
+	} // end of reach()
+
+	/**
+	 * Follow parent back from a target of the current search.
+	 *
+	 * @param source Id of the source of the search.
+	 * @param target Id of the target.
+	 * @return Ids of the cells of the path from the source to the target, empty if it is not reached.
+	 */
+	protected int[] tracePath(int source, int target) {
+		if (reached[target] != stamp) {
+			return new int[0];
+		}
+
+		int length = 1;
+		for (int cell = target; cell != source; length++) {
+			cell = previous(cell);
+		}
+
+		int path[] = new int[length];
+		int cell = target;
+		for (int i = length - 1; i >= 0; i--) {
+			path[i] = cell;
+			if (i > 0) {
+				cell = previous(cell);
+			}
+		}
+		return path;
+	} // end of tracePath()
+
+	/**
+	 * The cell a cell was reached from.
+	 *
+	 * @param cell Id of a reached cell other than the source.
+	 * @return Id of its parent.
+	 */
+	protected int previous(int cell) {
+		byte step = parent[cell];
+		return step == TUNNEL_STEP ? maze.tunnelTo(cell) : maze.neighbor(cell, Maze.oppoDir[step]);
+	} // end of previous()
+
+	/**
+	 * Route of one pair: the pair and the shortest path between its cells.
+	 */
+	public static class Route {
+		protected int index;
+		protected int source;
+		protected int target;
+		protected SolveResult result;
+
+		/**
+		 * construct a route
+		 * @param index Position of the pair in the batch.
+		 * @param source Id of the first cell.
+		 * @param target Id of the last cell.
+		 * @param result The path, with the cells explored and the time taken by the search of its group.
+		 */
+		public Route(int index, int source, int target, SolveResult result) {
+			this.index = index;
+			this.source = source;
+			this.target = target;
+			this.result = result;
+		} // end of Route()
+
+		/**
+		 * Position of the pair in the batch.
+		 * @return The index in sources and targets.
+		 */
+		public int index() {
+			return index;
+		} // end of index()
+
+		/**
+		 * First cell of the pair.
+		 * @return Id of the cell.
+		 */
+		public int source() {
+			return source;
+		} // end of source()
+
+		/**
+		 * Last cell of the pair.
+		 * @return Id of the cell.
+		 */
+		public int target() {
+			return target;
+		} // end of target()
+
+		/**
+		 * The path of the pair, not solved if the target cannot be reached.
+		 * @return The result, shared cells explored and time with the other pairs of the source.
+		 */
+		public SolveResult result() {
+			return result;
+		} // end of result()
+	} // end of class Route
+
+} // end of class BatchSolver
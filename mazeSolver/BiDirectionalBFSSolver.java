@@ -0,0 +1,184 @@
+package mazeSolver;
+
+import java.util.*;
+
+import maze.*;
+
+/**
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ * Class for solving maze using bidirectional breadth first search.
+ */
+public class BiDirectionalBFSSolver extends BFSSolver {
+
+	/**
+     * Use two breadth first searches, from the entrance and from the exit, to find the shortest path of a maze.
+     *
+     * ******************************************************************************************
+     *
+     * ALGORITHM bidirectional BFS
+     * Perform breadth first searches from both entrance and exit until they meet.
+     * Input: Maze maze.
+     * OUTPUT : Maze maze which is solved.
+     *
+     * 1: queueA = {entrance}, queueB = {exit}
+     * 2: while (A and B are not met and both queues are not empty)
+     * 3: {
+     * 4:	pick the side with the smaller queue
+     * 5:	for (each cell c of the current level of the side)
+     * 6:	{
+     * 7:		for (each neighbour n reached through an open wall or the tunnel)
+     * 8:		{
+     * 9:			if (n is owned by the other side) A and B are met, keep the shortest meeting
+     * 10:			else if (n is not owned) claim n for the side and add it to its queue
+     * 11:		}
+     * 12:	}
+     * 13:}
+     * 14:join the path from the entrance to the meeting and the path from the meeting to the exit
+     *
+     * owner[c] is d + 1 for a cell d steps from the entrance, -(d + 1) for a cell d steps from the
+     * exit and 0 for a cell not reached, so meeting is found in O(1) when a cell is claimed. The
+     * level is finished after the first meeting so that the shortest meeting is kept.
+     *
+     * ******************************************************************************************
+     *
+	 * solver properties
+	 */
+	// signed distance of every cell to the side which reached it
+	protected int owner[];
+	protected IntDeque queueA;
+	protected IntDeque queueB;
+	// the meeting: a cell of A, a cell of B next to it and the length of the path through them
+	protected int meetA;
+	protected int meetB;
+	protected int meetLength;
+
+	/**
+	 * Find the shortest path from the entrance to the exit.
+	 *
+	 * @param maze The reference of Maze object to be solved.
+	 */
+	public void solveMaze(Maze maze) {
+
+		int numSlots = maze.sizeR * maze.stride;
+
+		isSolved = false;
+		numExplored = 0;
+		path = new int[0];
+		parent = new byte[numSlots];
+		owner = new int[numSlots];
+		queueA = new IntDeque();
+		queueB = new IntDeque();
+		meetLength = Integer.MAX_VALUE;
+
+		parent[maze.entranceId] = START;
+		owner[maze.entranceId] = 1;
+		queueA.addLast(maze.entranceId);
+		if (maze.exitId == maze.entranceId) {
+			meetA = meetB = maze.entranceId;
+			meetLength = 1;
+		} else {
+			parent[maze.exitId] = START;
+			owner[maze.exitId] = -1;
+			queueB.addLast(maze.exitId);
+		}
+
+		while (meetLength == Integer.MAX_VALUE && !queueA.isEmpty() && !queueB.isEmpty()) {
+			if (queueA.size() <= queueB.size()) {
+				expandLevel(maze, queueA, 1);
+			} else {
+				expandLevel(maze, queueB, -1);
+			}
+		}
+
+		if (meetLength != Integer.MAX_VALUE) {
+			isSolved = true;
+			joinPath(maze);
+			for (int cell : path) {
+				maze.drawFtPrt(cell);
+			}
+		}
+
+	} // end of solveMaze()
+
+	/**
+	 * Expand all the cells of the current level of a side.
+	 *
+	 * @param maze The reference of Maze object to be solved.
+	 * @param queue The queue of the side.
+	 * @param sign 1 for the side of the entrance, -1 for the side of the exit.
+	 */
+	protected void expandLevel(Maze maze, IntDeque queue, int sign) {
+
+		for (int n = queue.size(); n > 0; n--) {
+			int cell = queue.removeFirst();
+			numExplored++;
+
+			int next = maze.tunnelTo(cell);
+			if (next >= 0) {
+				claim(queue, cell, next, TUNNEL_STEP, sign);
+			}
+			for (int i : maze.dirs) {
+				if (maze.isOpen(cell, i)) {
+					claim(queue, cell, maze.neighbor(cell, i), (byte) i, sign);
+				}
+			}
+		}
+
+	} // end of expandLevel()
+
+	/**
+	 * Claim a neighbour for a side, or record a meeting if the other side owns it.
+	 *
+	 * @param queue The queue of the side.
+	 * @param cell Id of the expanded cell.
+	 * @param next Id of the neighbour.
+	 * @param step Direction from cell to next, or TUNNEL_STEP.
+	 * @param sign 1 for the side of the entrance, -1 for the side of the exit.
+	 */
+	protected void claim(IntDeque queue, int cell, int next, byte step, int sign) {
+
+		int stamp = owner[next] * sign;
+		if (stamp == 0) {
+			owner[next] = owner[cell] + sign;
+			parent[next] = step;
+			queue.addLast(next);
+		} else if (stamp < 0) {
+			// cells on the path: |owner[cell]| + |owner[next]|
+			int length = (owner[cell] - owner[next]) * sign;
+			if (length < meetLength) {
+				meetLength = length;
+				meetA = sign > 0 ? cell : next;
+				meetB = sign > 0 ? next : cell;
+			}
+		}
+
+	} // end of claim()
+
+	/**
+	 * Store the path from the entrance to the exit through the meeting in path[].
+	 *
+	 * @param maze The reference of Maze object solved.
+	 */
+	protected void joinPath(Maze maze) {
+
+		path = new int[meetLength];
+		int cell = meetA;
+		for (int i = owner[meetA] - 1; i >= 0; i--) {
+			path[i] = cell;
+			if (i > 0) {
+				cell = previous(maze, cell);
+			}
+		}
+		cell = meetB;
+		for (int i = owner[meetA]; i < meetLength; i++) {
+			path[i] = cell;
+			if (i < meetLength - 1) {
+				cell = previous(maze, cell);
+			}
+		}
+
+	} // end of joinPath()
+
+} // end of class BiDirectionalBFSSolver
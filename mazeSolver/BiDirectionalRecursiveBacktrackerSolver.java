@@ -41,17 +41,23 @@ public class BiDirectionalRecursiveBacktrackerSolver implements MazeSolver {
 	 * generator properties
 	 */
 	boolean isSolved = false;
-	protected Cell cellA = null;
-	protected Cell cellB = null;
+	protected int cellA = -1;
+	protected int cellB = -1;
 	protected Random random = new Random();
 	
 	// the collection of cells which the generator has gone through by order, used for backtracking
-	protected Stack<Cell> pathA = new Stack<Cell>();
-	protected Stack<Cell> pathB = new Stack<Cell>();
+	protected Stack<Integer> pathA = new Stack<Integer>();
+	protected Stack<Integer> pathB = new Stack<Integer>();
 	
-	protected ArrayList<Cell> visitedA = new ArrayList<Cell>();
-	protected ArrayList<Cell> visitedB = new ArrayList<Cell>();
-	protected Set<Cell> explored = new HashSet<Cell>();
+	protected ArrayList<Integer> visitedA = new ArrayList<Integer>();
+	protected ArrayList<Integer> visitedB = new ArrayList<Integer>();
+	protected Set<Integer> explored = new HashSet<Integer>();
+
+	// the cell each cell was first reached from by A and by B, and a cell reached by both
+	protected final static int ROOT = -2;
+	protected int parentA[];
+	protected int parentB[];
+	protected int meet = -1;
 
 	/**
 	 * Function for bidirectional recursive backtracker.
@@ -61,8 +67,14 @@ public class BiDirectionalRecursiveBacktrackerSolver implements MazeSolver {
 	public void solveMaze(Maze maze) {
 		boolean hasMet = false;
 		int i = 0;
-		cellA = maze.entrance;
-		cellB = maze.exit;
+		cellA = maze.entranceId;
+		cellB = maze.exitId;
+		parentA = new int[maze.sizeR * maze.stride];
+		parentB = new int[maze.sizeR * maze.stride];
+		Arrays.fill(parentA, -1);
+		Arrays.fill(parentB, -1);
+		parentA[cellA] = ROOT;
+		parentB[cellB] = ROOT;
 
 		pathA.push(cellA);
 		visitedA.add(cellA);
@@ -73,16 +85,18 @@ public class BiDirectionalRecursiveBacktrackerSolver implements MazeSolver {
 		maze.drawFtPrt(cellB);
 		explored.add(cellB);
 
-		if (cellA.tunnelTo != null) {
-			cellA = cellA.tunnelTo;
+		if (maze.tunnelTo(cellA) >= 0) {
+			setParent(parentA, maze.tunnelTo(cellA), cellA);
+			cellA = maze.tunnelTo(cellA);
 			pathA.push(cellA);
 			visitedA.add(cellA);
 			maze.drawFtPrt(cellA);
 			explored.add(cellA);
 		}
 
-		if (cellB.tunnelTo != null) {
-			cellB = cellB.tunnelTo;
+		if (maze.tunnelTo(cellB) >= 0) {
+			setParent(parentB, maze.tunnelTo(cellB), cellB);
+			cellB = maze.tunnelTo(cellB);
 			pathB.push(cellB);
 			visitedB.add(cellB);
 			maze.drawFtPrt(cellB);
@@ -97,11 +111,13 @@ public class BiDirectionalRecursiveBacktrackerSolver implements MazeSolver {
 			backTrackingB();
 			for (i = 0; i < visitedB.size(); i++) {
 				if (visitedA.contains(visitedB.get(i))) {
+					meet = visitedB.get(i);
 					hasMet = true;
 				}
 			}
 			for (i = 0; i < visitedA.size(); i++) {
 				if (visitedB.contains(visitedA.get(i))) {
+					meet = visitedA.get(i);
 					hasMet = true;
 				}
 			}
@@ -113,39 +129,28 @@ public class BiDirectionalRecursiveBacktrackerSolver implements MazeSolver {
 	 * Pick a random unvisited neighbouring cell, move to that cell; continue until a cell that has no unvisited
 	 *  neighbours is reached.
 	 */
-	public void recursion(Maze maze, Cell currCell) {
-
-		ArrayList<Cell> neighUnvisited = new ArrayList<Cell>();
-		Cell neighCell = null;
-
-		int i = 0;
+	public void recursion(Maze maze, int currCell) {
 
-		int num = -1;
+		// the unvisited neighbouring cells, used for random picking
+		int neighUnvisited[] = new int[Maze.NUM_DIR];
+		int numUnvisited = 0;
+		int neighCell = -1;
 
-		if (currCell == cellA) {
-			for (i = 0; i < Maze.NUM_DIR; i++) {
-				if (currCell.neigh[i] != null && !visitedA.contains(currCell.neigh[i])) {
-					if (currCell.wall[i].present == false) {
-						neighUnvisited.add(currCell.neigh[i]);
-					}
-				}
-			}
-		} else {
-			for (i = 0; i < Maze.NUM_DIR; i++) {
-				if (currCell.neigh[i] != null && !visitedB.contains(currCell.neigh[i])) {
-					if (currCell.wall[i].present == false) {
-						neighUnvisited.add(currCell.neigh[i]);
-					}
+		List<Integer> visited = currCell == cellA ? visitedA : visitedB;
+		for (int i : maze.dirs) {
+			neighCell = maze.neighbor(currCell, i);
+			if (neighCell >= 0 && !visited.contains(neighCell)) {
+				if (maze.isOpen(currCell, i)) {
+					neighUnvisited[numUnvisited++] = neighCell;
 				}
 			}
 		}
 
-		if (!neighUnvisited.isEmpty()) {
-			num = random.nextInt(neighUnvisited.size());
-			neighCell = neighUnvisited.get(num);
+		if (numUnvisited > 0) {
+			neighCell = neighUnvisited[random.nextInt(numUnvisited)];
 
-			neighUnvisited.clear();
 			if (currCell == cellA) {
+				setParent(parentA, neighCell, currCell);
 				currCell = neighCell;
 				cellA = currCell;
 				pathA.push(cellA);
@@ -153,6 +158,7 @@ public class BiDirectionalRecursiveBacktrackerSolver implements MazeSolver {
 				maze.drawFtPrt(cellA);
 				explored.add(cellA);
 			} else {
+				setParent(parentB, neighCell, currCell);
 				currCell = neighCell;
 				cellB = currCell;
 				pathB.push(cellB);
@@ -161,15 +167,17 @@ public class BiDirectionalRecursiveBacktrackerSolver implements MazeSolver {
 				explored.add(cellB);
 			}
 
-			if (currCell.tunnelTo != null) {
-				currCell = currCell.tunnelTo;
-				if (currCell.tunnelTo == cellA) {
+			if (maze.tunnelTo(currCell) >= 0) {
+				currCell = maze.tunnelTo(currCell);
+				if (maze.tunnelTo(currCell) == cellA) {
+					setParent(parentA, currCell, cellA);
 					cellA = currCell;
 					pathA.push(cellA);
 					visitedA.add(cellA);
 					maze.drawFtPrt(cellA);
 					explored.add(cellA);
 				} else {
+					setParent(parentB, currCell, cellB);
 					cellB = currCell;
 					pathB.push(cellB);
 					visitedB.add(cellB);
@@ -183,6 +191,19 @@ public class BiDirectionalRecursiveBacktrackerSolver implements MazeSolver {
 		}
 	} // end of recursion()
 
+	/**
+	 * Remember the cell a cell is reached from, unless it has been reached before.
+	 * 
+	 * @param parent parentA or parentB.
+	 * @param cell Id of the reached cell.
+	 * @param from Id of the cell it is reached from.
+	 */
+	protected void setParent(int parent[], int cell, int from) {
+		if (parent[cell] == -1) {
+			parent[cell] = from;
+		}
+	} // end of setParent()
+
 	/**
 	 * Backtrack thr cell A that has unvisited neighbours and repeat the recursive function.
 	 */
@@ -221,6 +242,35 @@ public class BiDirectionalRecursiveBacktrackerSolver implements MazeSolver {
 		}
 	} // end if isSolved()
 
+	/**
+	 * Use after solveMaze(maze), the path found.
+	 * @return Ids of the cells of the path from the entrance to the exit.
+	 */
+	public int[] path() {
+
+		LoopErasedPath path = new LoopErasedPath(parentA.length);
+		if (meet < 0) {
+			return path.toArray();
+		}
+
+		// A reached meet from the entrance, B reached meet from the exit
+		int length = 0;
+		for (int cell = meet; cell >= 0; cell = parentA[cell]) {
+			length++;
+		}
+		int cells[] = new int[length];
+		for (int cell = meet; cell >= 0; cell = parentA[cell]) {
+			cells[--length] = cell;
+		}
+		for (int cell : cells) {
+			path.add(cell);
+		}
+		for (int cell = parentB[meet]; cell >= 0; cell = parentB[cell]) {
+			path.add(cell);
+		}
+		return path.toArray();
+	} // end of path()
+
 	/**
 	 * Use after solveMaze(maze), counting the number of cells explored in solving process.
 	 * @return The number of cells explored.
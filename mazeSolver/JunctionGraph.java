@@ -0,0 +1,288 @@
+package mazeSolver;
+
+import java.util.*;
+
+import maze.*;
+
+/**
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ * Class contracting the corridors of a maze into a weighted graph of its junctions.
+ */
+public class JunctionGraph {
+
+	/**
+     * Keep as nodes the cells which are not in the middle of a corridor, and join them by the corridors between them.
+     *
+     * ******************************************************************************************
+     *
+     * ALGORITHM corridor contraction
+     * Input: Maze maze.
+     * OUTPUT : nodes and edges of the junction graph, in compressed sparse row arrays.
+     *
+     * 1: nodes = cells with a number of ways other than 2, tunnel ends, entrance and exit
+     * 2: for (each node u)
+     * 3: {
+     * 4:	for (each way out of u, through an open wall or the tunnel, to a cell c)
+     * 5:	{
+     * 6:		if (c is a node) add the edge (u, c) of weight 1
+     * 7:		else if (c is in a corridor walked from its other end) add that corridor reversed
+     * 8:		else walk from c away from u until a node v, keeping the cells walked as a run,
+     * 9:		     and add the edge (u, v) of weight the number of cells walked plus one
+     * 10:	}
+     * 11:}
+     *
+     * The edges of node u are edges offset[u] to offset[u + 1] - 1. The cells inside all the corridors
+     * are packed in runs[], every corridor once: an edge walking it backwards refers to the same run
+     * with the bits of its index flipped. Every cell is walked once, so the graph is built in
+     * O(number of cells), and a solver running on it touches the nodes only.
+     *
+     * ******************************************************************************************
+     *
+	 * graph properties
+	 */
+	// run of an edge between two nodes next to each other
+	protected final static int NO_RUN = Integer.MIN_VALUE;
+
+	protected Maze maze;
+	// node of every cell, -2 - c for a cell inside corridor c, -1 for a cell in no corridor
+	protected int nodeOf[];
+	// cell of every node
+	protected int nodeCell[];
+	protected int numNodes = 0;
+
+	// the edges of the nodes
+	protected int offset[];
+	protected int target[];
+	protected int weight[];
+	// corridor of every edge, ~c if it is walked backwards, NO_RUN if there is no cell between its nodes
+	protected int run[];
+
+	// the cells of every corridor, runLength[c] cells from runStart[c] in runs[], and the node it was walked from
+	protected int runs[];
+	protected int runStart[];
+	protected int runLength[];
+	protected int runFrom[];
+	protected int numCorridors = 0;
+
+	/**
+	 * Contract the corridors of a maze.
+	 *
+	 * @param maze The maze, which is not changed while the graph is used.
+	 */
+	public JunctionGraph(Maze maze) {
+
+		int numCells = maze.sizeR * maze.sizeC;
+		int ways[] = new int[Maze.NUM_DIR + 1];
+
+		this.maze = maze;
+		nodeOf = new int[maze.sizeR * maze.stride];
+		nodeCell = new int[numCells];
+		offset = new int[numCells + 1];
+		Arrays.fill(nodeOf, -1);
+
+		// the nodes and their number of edges
+		for (int r = 0; r < maze.sizeR; r++) {
+			for (int c = 0; c < maze.sizeC; c++) {
+				int cell = maze.cellAt(r, c);
+				int numWays = ways(cell, ways);
+				if (numWays != 2 || maze.tunnelTo(cell) >= 0 || cell == maze.entranceId || cell == maze.exitId) {
+					nodeOf[cell] = numNodes;
+					nodeCell[numNodes] = cell;
+					offset[++numNodes] = numWays;
+				}
+			}
+		}
+		nodeCell = Arrays.copyOf(nodeCell, numNodes);
+		offset = Arrays.copyOf(offset, numNodes + 1);
+		for (int u = 0; u < numNodes; u++) {
+			offset[u + 1] += offset[u];
+		}
+
+		int numEdges = offset[numNodes];
+		target = new int[numEdges];
+		weight = new int[numEdges];
+		run = new int[numEdges];
+		runs = new int[numCells - numNodes];
+		runStart = new int[numEdges];
+		runLength = new int[numEdges];
+		runFrom = new int[numEdges];
+
+		// the edges, walking every corridor from its first end
+		int numRun = 0;
+		for (int u = 0; u < numNodes; u++) {
+			int numWays = ways(nodeCell[u], ways);
+			for (int k = 0; k < numWays; k++) {
+				int e = offset[u] + k;
+				int cell = ways[k];
+				int stamp = nodeOf[cell];
+
+				if (stamp >= 0) {
+					target[e] = stamp;
+					weight[e] = 1;
+					run[e] = NO_RUN;
+				} else if (stamp <= -2) {
+					int c = -2 - stamp;
+					target[e] = runFrom[c];
+					weight[e] = runLength[c] + 1;
+					run[e] = ~c;
+				} else {
+					int c = numCorridors++;
+					int prev = nodeCell[u];
+					runStart[c] = numRun;
+					runFrom[c] = u;
+					while (nodeOf[cell] == -1) {
+						nodeOf[cell] = -2 - c;
+						runs[numRun++] = cell;
+						int next = otherWay(cell, prev);
+						prev = cell;
+						cell = next;
+					}
+					runLength[c] = numRun - runStart[c];
+					target[e] = nodeOf[cell];
+					weight[e] = runLength[c] + 1;
+					run[e] = c;
+				}
+			}
+		}
+		runStart = Arrays.copyOf(runStart, numCorridors);
+		runLength = Arrays.copyOf(runLength, numCorridors);
+		runFrom = Arrays.copyOf(runFrom, numCorridors);
+
+	} // end of JunctionGraph()
+
+	/**
+	 * The cells a cell leads to, through the tunnel first and then through its open walls.
+	 *
+	 * @param cell Id of the cell.
+	 * @param ways Array of at least NUM_DIR + 1 ids, filled with the cells.
+	 * @return The number of cells.
+	 */
+	protected int ways(int cell, int ways[]) {
+		int numWays = 0;
+		int next = maze.tunnelTo(cell);
+		if (next >= 0) {
+			ways[numWays++] = next;
+		}
+		for (int i : maze.dirs) {
+			if (maze.isOpen(cell, i)) {
+				ways[numWays++] = maze.neighbor(cell, i);
+			}
+		}
+		return numWays;
+	} // end of ways()
+
+	/**
+	 * The way out of a cell in the middle of a corridor which does not go back.
+	 *
+	 * @param cell Id of a cell with two open walls and no tunnel.
+	 * @param prev Id of the cell walked from.
+	 * @return Id of the next cell.
+	 */
+	protected int otherWay(int cell, int prev) {
+		for (int i : maze.dirs) {
+			if (maze.isOpen(cell, i)) {
+				int next = maze.neighbor(cell, i);
+				if (next != prev) {
+					return next;
+				}
+			}
+		}
+		return -1;
+	} // end of otherWay()
+
+	/**
+	 * Number of nodes.
+	 * @return The number of nodes.
+	 */
+	public int numNodes() {
+		return numNodes;
+	} // end of numNodes()
+
+	/**
+	 * Number of edges, every corridor counted once each way.
+	 * @return The number of edges.
+	 */
+	public int numEdges() {
+		return offset[numNodes];
+	} // end of numEdges()
+
+	/**
+	 * Node of a cell.
+	 * @param cell Id of the cell.
+	 * @return Index of the node, -1 if the cell is inside a corridor.
+	 */
+	public int node(int cell) {
+		return Math.max(nodeOf[cell], -1);
+	} // end of node()
+
+	/**
+	 * Cell of a node.
+	 * @param u Index of the node.
+	 * @return Id of the cell.
+	 */
+	public int cell(int u) {
+		return nodeCell[u];
+	} // end of cell()
+
+	/**
+	 * First edge of a node.
+	 * @param u Index of the node.
+	 * @return Index of the edge.
+	 */
+	public int firstEdge(int u) {
+		return offset[u];
+	} // end of firstEdge()
+
+	/**
+	 * Edge after the last edge of a node.
+	 * @param u Index of the node.
+	 * @return Index of the edge.
+	 */
+	public int endEdge(int u) {
+		return offset[u + 1];
+	} // end of endEdge()
+
+	/**
+	 * Node an edge leads to.
+	 * @param e Index of the edge.
+	 * @return Index of the node.
+	 */
+	public int target(int e) {
+		return target[e];
+	} // end of target()
+
+	/**
+	 * Number of steps along an edge.
+	 * @param e Index of the edge.
+	 * @return The number of steps.
+	 */
+	public int weight(int e) {
+		return weight[e];
+	} // end of weight()
+
+	/**
+	 * Write the cells walked along an edge, without the cell it starts from.
+	 *
+	 * @param e Index of the edge.
+	 * @param cells Array to write the cells in.
+	 * @param i Index in cells of the first cell to write.
+	 * @return Index in cells after the last cell written, the cell of the target node.
+	 */
+	public int expand(int e, int cells[], int i) {
+		int c = run[e];
+		if (c >= 0) {
+			System.arraycopy(runs, runStart[c], cells, i, runLength[c]);
+			i += runLength[c];
+		} else if (c != NO_RUN) {
+			c = ~c;
+			for (int k = runStart[c] + runLength[c] - 1; k >= runStart[c]; k--) {
+				cells[i++] = runs[k];
+			}
+		}
+		cells[i++] = nodeCell[target[e]];
+		return i;
+	} // end of expand()
+
+} // end of class JunctionGraph
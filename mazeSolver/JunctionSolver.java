@@ -0,0 +1,182 @@
+package mazeSolver;
+
+import java.util.*;
+
+import maze.*;
+
+/**
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ * Class for solving maze on the graph of its junctions.
+ */
+public class JunctionSolver implements MazeSolver {
+
+	/**
+     * Use Dijkstra's algorithm on the junction graph of a maze to find its shortest path.
+     *
+     * ******************************************************************************************
+     *
+     * ALGORITHM junction Dijkstra
+     * Contract the corridors of the maze, then search the nodes only.
+     * Input: Maze maze.
+     * OUTPUT : Maze maze which is solved.
+     *
+     * 1: graph = the junction graph of maze
+     * 2: open = {entrance node}, dist(entrance node) = 0
+     * 3: while (open is not empty)
+     * 4: {
+     * 5:	take the node u of open with the smallest dist
+     * 6:	if (u is the exit node) stop
+     * 7:	for (each edge (u, v) of weight w)
+     * 8:		if (dist(u) + w < dist(v)) dist(v) = dist(u) + w, parent(v) = the edge, add v to open
+     * 9:}
+     * 10:follow parent back from the exit node, then expand every edge into its cells and draw them
+     *
+     * The search touches the nodes of the graph only, so it explores fewer cells than a BFS by the
+     * average length of the corridors. A graph built once can be given to the solver and reused.
+     *
+     * ******************************************************************************************
+     *
+	 * solver properties
+	 */
+	protected JunctionGraph graph;
+	// the graph was given, not built by the solver
+	protected boolean isGiven = false;
+	protected boolean isSolved = false;
+	protected int numExplored = 0;
+	// steps from the entrance node, and the node and the edge every node was reached from
+	protected int dist[];
+	protected int parentNode[];
+	protected int parentEdge[];
+	protected int path[] = new int[0];
+
+	public JunctionSolver() {
+	} // end of JunctionSolver()
+
+	/**
+	 * Construct a solver reusing the graph of a maze.
+	 *
+	 * @param graph The junction graph of the maze to be solved.
+	 */
+	public JunctionSolver(JunctionGraph graph) {
+		this.graph = graph;
+		isGiven = true;
+	} // end of JunctionSolver()
+
+	/**
+	 * Find the shortest path from the entrance to the exit.
+	 *
+	 * @param maze The reference of Maze object to be solved.
+	 */
+	public void solveMaze(Maze maze) {
+
+		if (!isGiven || graph.maze != maze || graph.node(maze.entranceId) < 0 || graph.node(maze.exitId) < 0) {
+			graph = new JunctionGraph(maze);
+		}
+
+		int numNodes = graph.numNodes();
+		int from = graph.node(maze.entranceId);
+		int to = graph.node(maze.exitId);
+
+		isSolved = false;
+		numExplored = 0;
+		path = new int[0];
+		dist = new int[numNodes];
+		parentNode = new int[numNodes];
+		parentEdge = new int[numNodes];
+		Arrays.fill(dist, Integer.MAX_VALUE);
+		IntMinHeap open = new IntMinHeap(numNodes);
+
+		dist[from] = 0;
+		parentNode[from] = -1;
+		open.push(from, 0);
+
+		while (!open.isEmpty()) {
+			int u = open.poll();
+			numExplored++;
+			if (u == to) {
+				break;
+			}
+
+			for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+				int v = graph.target(e);
+				int d = dist[u] + graph.weight(e);
+				if (d < dist[v]) {
+					dist[v] = d;
+					parentNode[v] = u;
+					parentEdge[v] = e;
+					open.push(v, d);
+				}
+			}
+		}
+
+		if (dist[to] != Integer.MAX_VALUE) {
+			isSolved = true;
+			tracePath(from, to);
+			for (int cell : path) {
+				maze.drawFtPrt(cell);
+			}
+		}
+
+	} // end of solveMaze()
+
+	/**
+	 * Follow parent back from the exit node and expand the edges into path[].
+	 *
+	 * @param from Index of the entrance node.
+	 * @param to Index of the exit node.
+	 */
+	protected void tracePath(int from, int to) {
+
+		int numEdges = 0;
+		for (int v = to; v != from; v = parentNode[v]) {
+			numEdges++;
+		}
+		int edges[] = new int[numEdges];
+		for (int v = to; v != from; v = parentNode[v]) {
+			edges[--numEdges] = parentEdge[v];
+		}
+
+		path = new int[dist[to] + 1];
+		path[0] = graph.cell(from);
+		int i = 1;
+		for (int e : edges) {
+			i = graph.expand(e, path, i);
+		}
+
+	} // end of tracePath()
+
+	/**
+	 * Use after solveMaze(maze), the junction graph searched.
+	 * @return The graph.
+	 */
+	public JunctionGraph graph() {
+		return graph;
+	} // end of graph()
+
+	/**
+	 * Use after solveMaze(maze), the shortest path.
+	 * @return Ids of the cells of the path from the entrance to the exit, empty if not solved.
+	 */
+	public int[] path() {
+		return path;
+	} // end of path()
+
+	/**
+	 * Use after solveMaze(maze), to check whether the maze is solved.
+	 * @return True if solved. Otherwise false.
+	 */
+	public boolean isSolved() {
+		return isSolved;
+	} // end if isSolved()
+
+	/**
+	 * Use after solveMaze(maze), counting the number of cells explored in solving process.
+	 * @return The number of nodes taken from open.
+	 */
+	public int cellsExplored() {
+		return numExplored;
+	} // end of cellsExplored()
+
+} // end of class JunctionSolver
@@ -0,0 +1,73 @@
+package mazeSolver;
+
+import java.util.*;
+
+/**
+ * Simple path kept while walking a maze: going back to a cell of the path cuts the loop walked since.
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ *
+ * A walk which backtracks out of dead ends, like a wall follower or a depth first search, leaves the
+ * path from its first cell to its last one. Every cell is added and cut at most once per visit, so
+ * the cost is linear in the length of the walk.
+ */
+public class LoopErasedPath {
+	/**
+	 * the cells of the path in order
+	 */
+	protected int cells[] = new int[64];
+	protected int size;
+
+	/**
+	 * index[cell] is the position of cell in cells plus one, 0 if it is not on the path
+	 */
+	protected int index[];
+
+	/**
+	 * construct an empty path
+	 * @param numSlots Number of cell slots of the maze.
+	 */
+	public LoopErasedPath(int numSlots) {
+		index = new int[numSlots];
+	} // end of LoopErasedPath()
+
+
+	/**
+	 * Walk to a cell.
+	 * @param cell Id of the cell.
+	 */
+	public void add(int cell) {
+		int p = index[cell];
+		if (p > 0) {
+			// back on the path, cut the loop after the cell
+			for (int i = p; i < size; i++)
+				index[cells[i]] = 0;
+			size = p;
+			return;
+		}
+		if (size == cells.length)
+			cells = Arrays.copyOf(cells, 2 * size);
+		cells[size++] = cell;
+		index[cell] = size;
+	} // end of add()
+
+
+	/**
+	 * Number of cells of the path.
+	 * @return The number of cells.
+	 */
+	public int size() {
+		return size;
+	} // end of size()
+
+
+	/**
+	 * The cells of the path.
+	 * @return Ids of the cells from the first cell walked to the last one.
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(cells, size);
+	} // end of toArray()
+
+} // end of class LoopErasedPath
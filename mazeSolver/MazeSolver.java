@@ -31,4 +31,23 @@ public interface MazeSolver
 	 * It is not required to be accurate and no marks are given (or lost) on it. 
 	 */
 	public abstract int cellsExplored();
+
+
+	/**
+	 * Use after solveMaze(maze), the path found.
+	 * @return Ids of the cells of the path from the entrance to the exit, empty if the solver does not keep it.
+	 */
+	public default int[] path() {
+		return new int[0];
+	}
+
+
+	/**
+	 * Solve the maze and return the path with the number of cells explored, the time and the memory taken.
+	 * @param maze The maze to solve.
+	 * @return The result of solveMaze(maze).
+	 */
+	public default SolveResult solve(Maze maze) {
+		return SolveResult.measure(this, maze);
+	}
 } // end of interface mazeGenerator
@@ -0,0 +1,333 @@
+package mazeSolver;
+
+import java.lang.invoke.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import maze.*;
+
+/**
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ * Class for solving maze using breadth first search expanding every level in parallel.
+ */
+public class ParallelBFSSolver extends BFSSolver {
+
+	/**
+     * Use a level-synchronous breadth first search on a ForkJoinPool to find the shortest path of a maze.
+     *
+     * ******************************************************************************************
+     *
+     * ALGORITHM parallel BFS
+     * Perform a breadth first search one level at a time, expanding the cells of a level in parallel.
+     * Input: Maze maze.
+     * OUTPUT : Maze maze which is solved.
+     *
+     * 1: frontier = {entrance}, level(entrance) = 1
+     * 2: while (frontier is not empty and the exit is not reached)
+     * 3: {
+     * 4:	in parallel, for (each cell c of frontier)
+     * 5:	{
+     * 6:		for (each neighbour n reached through an open wall or the tunnel)
+     * 7:			if (level(n) is changed from 0 to level(c) + 1 atomically) add n to the next frontier
+     * 8:	}
+     * 9:	frontier = the next frontier
+     * 10:}
+     * 11:from the exit, repeatedly step to a neighbour one level lower to get the shortest path and draw it
+     *
+     * A cell is claimed with a compare-and-set on level[], so it is expanded once whatever the number
+     * of threads, and the levels are the same as the ones of a serial BFS. A small frontier is kept as
+     * an array of cells built by every task on its own; a frontier with more than 1 / DENSE_RATIO of the
+     * cells is kept as a bitmap instead, so a dense level costs no copying. The parents are not stored:
+     * the path is traced back along decreasing levels.
+     *
+     * ******************************************************************************************
+     *
+	 * solver properties
+	 */
+	protected final static VarHandle LEVEL = MethodHandles.arrayElementVarHandle(int[].class);
+	protected final static VarHandle WORD = MethodHandles.arrayElementVarHandle(long[].class);
+	// a frontier with more than numSlots / DENSE_RATIO cells is a bitmap
+	protected final static int DENSE_RATIO = 64;
+	// cells, or words of a bitmap, expanded by a task without splitting
+	protected final static int GRAIN = 2048;
+
+	protected ForkJoinPool pool;
+	// level of every cell, 1 for the entrance and 0 for a cell not reached
+	protected int level[];
+	protected int numSlots;
+	// the current frontier, as cells or as a bitmap
+	protected int frontier[];
+	protected long frontierBits[];
+	protected int frontierSize;
+	// the next frontier
+	protected int next[];
+	protected long nextBits[];
+	protected int nextSize;
+	// the number of cells and the time of every level
+	protected int numLevels;
+	protected int levelSize[] = new int[64];
+	protected long levelNanos[] = new long[64];
+
+	public ParallelBFSSolver() {
+		this(ForkJoinPool.commonPool());
+	} // end of ParallelBFSSolver()
+
+	/**
+	 * Construct a solver running on a given pool.
+	 *
+	 * @param pool The pool expanding the levels.
+	 */
+	public ParallelBFSSolver(ForkJoinPool pool) {
+		this.pool = pool;
+	} // end of ParallelBFSSolver()
+
+	/**
+	 * Find the shortest path from the entrance to the exit.
+	 *
+	 * @param maze The reference of Maze object to be solved.
+	 */
+	public void solveMaze(Maze maze) {
+
+		numSlots = maze.sizeR * maze.stride;
+
+		isSolved = false;
+		numExplored = 0;
+		numLevels = 0;
+		path = new int[0];
+		level = new int[numSlots];
+
+		level[maze.entranceId] = 1;
+		frontier = new int[] { maze.entranceId };
+		frontierBits = null;
+		frontierSize = 1;
+
+		for (int d = 1; frontierSize > 0 && level[maze.exitId] == 0; d++) {
+			long start = System.nanoTime();
+			int size = frontierSize;
+
+			expandLevel(maze, d);
+			recordLevel(size, System.nanoTime() - start);
+			numExplored += size;
+		}
+
+		if (level[maze.exitId] != 0) {
+			isSolved = true;
+			tracePath(maze);
+			for (int cell : path) {
+				maze.drawFtPrt(cell);
+			}
+		}
+
+	} // end of solveMaze()
+
+	/**
+	 * Expand the frontier of level d into the frontier of level d + 1.
+	 *
+	 * @param maze The reference of Maze object to be solved.
+	 * @param d The level of the frontier.
+	 */
+	protected void expandLevel(Maze maze, int d) {
+
+		boolean dense = frontierSize > numSlots / DENSE_RATIO;
+		int length = frontierBits != null ? frontierBits.length : frontierSize;
+
+		next = null;
+		nextBits = dense ? new long[(numSlots + 63) >>> 6] : null;
+		nextSize = 0;
+
+		if (length <= GRAIN) {
+			// a small level is not worth the tasks
+			new Expand(maze, d, 0, length).compute();
+		} else {
+			pool.invoke(new Expand(maze, d, 0, length));
+		}
+
+		frontier = next;
+		frontierBits = nextBits;
+		frontierSize = nextSize;
+
+	} // end of expandLevel()
+
+	/**
+	 * Task expanding a range of the frontier, split in halves down to GRAIN cells or words.
+	 */
+	protected class Expand extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		protected Maze maze;
+		protected int d;
+		protected int lo;
+		protected int hi;
+		// cells claimed by a leaf, when the next frontier is an array
+		protected int claimed[];
+		protected int numClaimed;
+
+		protected Expand(Maze maze, int d, int lo, int hi) {
+			this.maze = maze;
+			this.d = d;
+			this.lo = lo;
+			this.hi = hi;
+		} // end of Expand()
+
+		@Override
+		protected void compute() {
+			if (hi - lo > GRAIN) {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new Expand(maze, d, lo, mid), new Expand(maze, d, mid, hi));
+				return;
+			}
+
+			claimed = nextBits == null ? new int[16] : null;
+			if (frontierBits == null) {
+				for (int i = lo; i < hi; i++) {
+					expand(frontier[i]);
+				}
+			} else {
+				for (int w = lo; w < hi; w++) {
+					for (long bits = frontierBits[w]; bits != 0; bits &= bits - 1) {
+						expand((w << 6) + Long.numberOfTrailingZeros(bits));
+					}
+				}
+			}
+			publish();
+		} // end of compute()
+
+		/**
+		 * Claim the neighbours of a cell which are not reached yet.
+		 *
+		 * @param cell Id of the cell.
+		 */
+		protected void expand(int cell) {
+			int n = maze.tunnelTo(cell);
+			if (n >= 0) {
+				claim(n);
+			}
+			for (int i : maze.dirs) {
+				if (maze.isOpen(cell, i)) {
+					claim(maze.neighbor(cell, i));
+				}
+			}
+		} // end of expand()
+
+		/**
+		 * Set the level of a cell to d + 1 if no thread has reached it, and add it to the next frontier.
+		 *
+		 * @param cell Id of the cell.
+		 */
+		protected void claim(int cell) {
+			if ((int) LEVEL.getOpaque(level, cell) != 0 || !LEVEL.compareAndSet(level, cell, 0, d + 1)) {
+				return;
+			}
+			if (claimed == null) {
+				WORD.getAndBitwiseOr(nextBits, cell >>> 6, 1L << cell);
+				numClaimed++;
+				return;
+			}
+			if (numClaimed == claimed.length) {
+				claimed = Arrays.copyOf(claimed, 2 * numClaimed);
+			}
+			claimed[numClaimed++] = cell;
+		} // end of claim()
+
+		/**
+		 * Add the cells claimed by the leaf to the next frontier.
+		 */
+		protected void publish() {
+			synchronized (ParallelBFSSolver.this) {
+				if (claimed != null && numClaimed > 0) {
+					if (next == null) {
+						next = new int[Math.max(numClaimed, 16)];
+					} else if (nextSize + numClaimed > next.length) {
+						next = Arrays.copyOf(next, Math.max(2 * next.length, nextSize + numClaimed));
+					}
+					System.arraycopy(claimed, 0, next, nextSize, numClaimed);
+				}
+				nextSize += numClaimed;
+			}
+		} // end of publish()
+	} // end of class Expand
+
+	/**
+	 * Follow decreasing levels back from the exit and store the path from the entrance in path[].
+	 *
+	 * @param maze The reference of Maze object solved.
+	 */
+	protected void tracePath(Maze maze) {
+
+		path = new int[level[maze.exitId]];
+		int cell = maze.exitId;
+		for (int i = path.length - 1; i >= 0; i--) {
+			path[i] = cell;
+			if (i > 0) {
+				cell = lower(maze, cell);
+			}
+		}
+
+	} // end of tracePath()
+
+	/**
+	 * A neighbour of a cell one level lower.
+	 *
+	 * @param maze The reference of Maze object solved.
+	 * @param cell Id of a reached cell other than the entrance.
+	 * @return Id of the neighbour.
+	 */
+	protected int lower(Maze maze, int cell) {
+		int n = maze.tunnelTo(cell);
+		if (n >= 0 && level[n] == level[cell] - 1) {
+			return n;
+		}
+		for (int i : maze.dirs) {
+			if (maze.isOpen(cell, i)) {
+				n = maze.neighbor(cell, i);
+				if (level[n] == level[cell] - 1) {
+					return n;
+				}
+			}
+		}
+		return -1;
+	} // end of lower()
+
+	/**
+	 * Record the size and the time of a level.
+	 *
+	 * @param size Number of cells of the level.
+	 * @param nanos Time taken to expand it.
+	 */
+	protected void recordLevel(int size, long nanos) {
+		if (numLevels == levelSize.length) {
+			levelSize = Arrays.copyOf(levelSize, 2 * numLevels);
+			levelNanos = Arrays.copyOf(levelNanos, 2 * numLevels);
+		}
+		levelSize[numLevels] = size;
+		levelNanos[numLevels++] = nanos;
+	} // end of recordLevel()
+
+	/**
+	 * Use after solveMaze(maze), the number of levels expanded.
+	 * @return The number of levels.
+	 */
+	public int numLevels() {
+		return numLevels;
+	} // end of numLevels()
+
+	/**
+	 * Use after solveMaze(maze), the number of cells of a level.
+	 * @param d Index of the level, 0 for the entrance.
+	 * @return The number of cells.
+	 */
+	public int levelSize(int d) {
+		return levelSize[d];
+	} // end of levelSize()
+
+	/**
+	 * Use after solveMaze(maze), the time taken to expand a level.
+	 * @param d Index of the level, 0 for the entrance.
+	 * @return The time in nanoseconds.
+	 */
+	public long levelNanos(int d) {
+		return levelNanos[d];
+	} // end of levelNanos()
+
+} // end of class ParallelBFSSolver
@@ -0,0 +1,230 @@
+package mazeSolver;
+
+import java.util.*;
+
+import maze.*;
+
+/**
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ * Class answering path queries between any two cells of a perfect maze without searching.
+ */
+public class PathIndex {
+
+	/**
+     * Root the tree of a perfect maze once, then join any two cells through their lowest common ancestor.
+     *
+     * ******************************************************************************************
+     *
+     * ALGORITHM path index
+     * Build: perform a breadth first search from a root cell through open walls and tunnels,
+     * keeping for every cell its parent, its depth and a jump pointer to one of its ancestors.
+     * Query: between cells a and b.
+     *
+     * 1: move the deeper cell up to the depth of the other one, using jumps when they do not overshoot
+     * 2: while (a != b)
+     * 3: {
+     * 4:	if (jump(a) != jump(b)) a = jump(a), b = jump(b)
+     * 5:	else a = parent(a), b = parent(b)
+     * 6:}
+     * 7: a is the lowest common ancestor l, distance = depth(a) + depth(b) - 2 * depth(l)
+     * 8: the path is a up to l, then l down to b
+     *
+     * The jumps are skew-binary: jump(c) is jump(jump(parent(c))) if the two jumps above the parent have
+     * the same length, otherwise parent(c). Cells of the same depth have jumps of the same length, and
+     * moving up to any depth takes O(log n) jumps, as with binary lifting, while the whole index is
+     * three ints per cell instead of log n. If the maze is not perfect the index follows the tree of
+     * the search, and cells not connected to each other have no path.
+     *
+     * ******************************************************************************************
+     *
+	 * index properties
+	 */
+	protected Maze maze;
+	// parent, skew-binary jump and depth of every cell, the parent and the jump of a root are itself
+	protected int parent[];
+	protected int jump[];
+	protected int depth[];
+	// number of trees, 1 for a perfect maze
+	protected int numTrees = 0;
+
+	/**
+	 * Build the index of a maze, rooted at its entrance.
+	 *
+	 * @param maze The maze, which is not changed while the index is used.
+	 */
+	public PathIndex(Maze maze) {
+
+		int numSlots = maze.sizeR * maze.stride;
+
+		this.maze = maze;
+		parent = new int[numSlots];
+		jump = new int[numSlots];
+		depth = new int[numSlots];
+		Arrays.fill(parent, -1);
+
+		IntDeque queue = new IntDeque(maze.sizeR * maze.sizeC);
+		root(queue, maze.entranceId >= 0 ? maze.entranceId : 0);
+		// a maze which is not perfect may have cells the entrance does not reach, they get trees of their own
+		for (int r = 0; r < maze.sizeR; r++) {
+			for (int c = 0; c < maze.sizeC; c++) {
+				int cell = maze.cellAt(r, c);
+				if (parent[cell] < 0) {
+					root(queue, cell);
+				}
+			}
+		}
+
+	} // end of PathIndex()
+
+	/**
+	 * Search the tree of a root.
+	 *
+	 * @param queue An empty queue.
+	 * @param root Id of the root.
+	 */
+	protected void root(IntDeque queue, int root) {
+
+		numTrees++;
+		parent[root] = root;
+		jump[root] = root;
+		queue.addLast(root);
+
+		while (!queue.isEmpty()) {
+			int cell = queue.removeFirst();
+			int next = maze.tunnelTo(cell);
+			if (next >= 0 && parent[next] < 0) {
+				attach(queue, cell, next);
+			}
+			for (int i : maze.dirs) {
+				if (maze.isOpen(cell, i)) {
+					next = maze.neighbor(cell, i);
+					if (parent[next] < 0) {
+						attach(queue, cell, next);
+					}
+				}
+			}
+		}
+
+	} // end of root()
+
+	/**
+	 * Make a cell a child of another one.
+	 *
+	 * @param queue The queue of the search.
+	 * @param p Id of the parent.
+	 * @param cell Id of the child.
+	 */
+	protected void attach(IntDeque queue, int p, int cell) {
+		int j = jump[p];
+		parent[cell] = p;
+		depth[cell] = depth[p] + 1;
+		jump[cell] = depth[p] - depth[j] == depth[j] - depth[jump[j]] ? jump[j] : p;
+		queue.addLast(cell);
+	} // end of attach()
+
+	/**
+	 * The ancestor of a cell at a depth.
+	 *
+	 * @param cell Id of the cell.
+	 * @param d A depth not larger than the depth of the cell.
+	 * @return Id of the ancestor.
+	 */
+	public int ancestor(int cell, int d) {
+		while (depth[cell] > d) {
+			cell = depth[jump[cell]] >= d ? jump[cell] : parent[cell];
+		}
+		return cell;
+	} // end of ancestor()
+
+	/**
+	 * The lowest common ancestor of two cells.
+	 *
+	 * @param a Id of a cell.
+	 * @param b Id of another cell.
+	 * @return Id of the ancestor, -1 if the cells are not connected.
+	 */
+	public int lca(int a, int b) {
+		if (depth[a] > depth[b]) {
+			a = ancestor(a, depth[b]);
+		} else {
+			b = ancestor(b, depth[a]);
+		}
+		if (numTrees > 1 && ancestor(a, 0) != ancestor(b, 0)) {
+			return -1;
+		}
+		while (a != b) {
+			if (jump[a] != jump[b]) {
+				a = jump[a];
+				b = jump[b];
+			} else {
+				a = parent[a];
+				b = parent[b];
+			}
+		}
+		return a;
+	} // end of lca()
+
+	/**
+	 * Number of steps between two cells.
+	 *
+	 * @param a Id of a cell.
+	 * @param b Id of another cell.
+	 * @return The number of steps, -1 if the cells are not connected.
+	 */
+	public int distance(int a, int b) {
+		int l = lca(a, b);
+		return l < 0 ? -1 : depth[a] + depth[b] - 2 * depth[l];
+	} // end of distance()
+
+	/**
+	 * The path between two cells.
+	 *
+	 * @param a Id of the first cell.
+	 * @param b Id of the last cell.
+	 * @return Ids of the cells of the path from a to b, empty if they are not connected.
+	 */
+	public int[] path(int a, int b) {
+		int l = lca(a, b);
+		if (l < 0) {
+			return new int[0];
+		}
+
+		int path[] = new int[depth[a] + depth[b] - 2 * depth[l] + 1];
+		int i = 0;
+		for (int cell = a; cell != l; cell = parent[cell]) {
+			path[i++] = cell;
+		}
+		path[i] = l;
+		i = path.length;
+		for (int cell = b; cell != l; cell = parent[cell]) {
+			path[--i] = cell;
+		}
+		return path;
+	} // end of path()
+
+	/**
+	 * The path between two cells as a result, with its steps packed.
+	 *
+	 * @param a Id of the first cell.
+	 * @param b Id of the last cell.
+	 * @return The result, not solved if the cells are not connected.
+	 */
+	public SolveResult solve(int a, int b) {
+		long start = System.nanoTime();
+		int path[] = path(a, b);
+		return new SolveResult(maze, path.length > 0, path, path.length, System.nanoTime() - start, -1);
+	} // end of solve()
+
+	/**
+	 * Depth of a cell in its tree.
+	 *
+	 * @param cell Id of the cell.
+	 * @return The number of steps from its root.
+	 */
+	public int depth(int cell) {
+		return depth[cell];
+	} // end of depth()
+
+} // end of class PathIndex
@@ -0,0 +1,193 @@
+package mazeSolver;
+
+import java.lang.management.*;
+
+import maze.*;
+
+/**
+ * Result of solving a maze: the path found and what it cost to find it.
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ *
+ * The path is kept as its first cell and a stream of steps of BITS_PER_STEP bits, a direction or
+ * TUNNEL_STEP, packed STEPS_PER_WORD to a long. A path of n cells costs about 3n / 8 bytes instead
+ * of 4n bytes of cell ids, and the cells can be rebuilt from the maze when needed.
+ */
+public class SolveResult {
+
+	/**
+	 * layout of the steps
+	 */
+	public final static int BITS_PER_STEP = 3;
+	public final static int STEPS_PER_WORD = Long.SIZE / BITS_PER_STEP;
+	// step through a tunnel
+	public final static int TUNNEL_STEP = Maze.NUM_DIR;
+
+	protected boolean isSolved;
+	// first cell of the path, -1 for an empty path
+	protected int start = -1;
+	protected int numSteps;
+	protected long steps[];
+	protected int cellsExplored;
+	protected long nanos;
+	// bytes allocated by the solving thread, -1 if the JVM does not tell
+	protected long allocatedBytes;
+
+	/**
+	 * construct a result
+	 * @param maze The solved maze.
+	 * @param isSolved Whether the maze is solved.
+	 * @param path Ids of the cells of the path, each next to the previous one or at the other end of its tunnel.
+	 * @param cellsExplored Number of cells explored.
+	 * @param nanos Time taken to solve the maze.
+	 * @param allocatedBytes Bytes allocated while solving the maze, -1 if unknown.
+	 */
+	public SolveResult(Maze maze, boolean isSolved, int path[], int cellsExplored, long nanos, long allocatedBytes) {
+		this.isSolved = isSolved;
+		this.cellsExplored = cellsExplored;
+		this.nanos = nanos;
+		this.allocatedBytes = allocatedBytes;
+
+		numSteps = Math.max(path.length - 1, 0);
+		steps = new long[(numSteps + STEPS_PER_WORD - 1) / STEPS_PER_WORD];
+		if (path.length > 0)
+			start = path[0];
+		for (int i = 0; i < numSteps; i++) {
+			long step = stepBetween(maze, path[i], path[i + 1]);
+			steps[i / STEPS_PER_WORD] |= step << (i % STEPS_PER_WORD * BITS_PER_STEP);
+		}
+	} // end of SolveResult()
+
+
+	/**
+	 * Run a solver on a maze and measure it.
+	 * @param solver The solver.
+	 * @param maze The maze to solve.
+	 * @return The result.
+	 */
+	public static SolveResult measure(MazeSolver solver, Maze maze) {
+		long before = threadAllocatedBytes();
+		long start = System.nanoTime();
+		solver.solveMaze(maze);
+		long nanos = System.nanoTime() - start;
+		long after = threadAllocatedBytes();
+
+		return new SolveResult(maze, solver.isSolved(), solver.path(), solver.cellsExplored(), nanos,
+				before < 0 || after < 0 ? -1 : after - before);
+	} // end of measure()
+
+
+	/**
+	 * Bytes allocated so far by the current thread.
+	 * @return The number of bytes, -1 if the JVM does not tell.
+	 */
+	protected static long threadAllocatedBytes() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+		}
+		return -1;
+	} // end of threadAllocatedBytes()
+
+
+	/**
+	 * The step from a cell to the next cell of a path.
+	 * @param maze The solved maze.
+	 * @param from Id of the cell.
+	 * @param to Id of the next cell.
+	 * @return The direction from one to the other, or TUNNEL_STEP.
+	 */
+	protected static int stepBetween(Maze maze, int from, int to) {
+		if (maze.tunnelTo(from) == to)
+			return TUNNEL_STEP;
+		for (int k : maze.dirs) {
+			if (maze.neighbor(from, k) == to)
+				return k;
+		}
+		throw new IllegalArgumentException("Cells " + from + " and " + to + " of the path are not next to each other.");
+	} // end of stepBetween()
+
+
+	/**
+	 * Whether the maze is solved.
+	 * @return True if solved. Otherwise false.
+	 */
+	public boolean isSolved() {
+		return isSolved;
+	} // end of isSolved()
+
+
+	/**
+	 * First cell of the path.
+	 * @return Id of the cell, -1 if the path is empty.
+	 */
+	public int start() {
+		return start;
+	} // end of start()
+
+
+	/**
+	 * Number of steps of the path, one less than its number of cells.
+	 * @return The number of steps.
+	 */
+	public int numSteps() {
+		return numSteps;
+	} // end of numSteps()
+
+
+	/**
+	 * A step of the path.
+	 * @param i Index of the step.
+	 * @return The direction of the step, or TUNNEL_STEP.
+	 */
+	public int step(int i) {
+		return (int) (steps[i / STEPS_PER_WORD] >>> (i % STEPS_PER_WORD * BITS_PER_STEP)) & ((1 << BITS_PER_STEP) - 1);
+	} // end of step()
+
+
+	/**
+	 * Rebuild the cells of the path.
+	 * @param maze The solved maze.
+	 * @return Ids of the cells of the path in order.
+	 */
+	public int[] cells(Maze maze) {
+		if (start < 0)
+			return new int[0];
+		int cells[] = new int[numSteps + 1];
+		cells[0] = start;
+		for (int i = 0; i < numSteps; i++) {
+			int step = step(i);
+			cells[i + 1] = step == TUNNEL_STEP ? maze.tunnelTo(cells[i]) : maze.neighbor(cells[i], step);
+		}
+		return cells;
+	} // end of cells()
+
+
+	/**
+	 * Number of cells explored by the solver.
+	 * @return The number of cells.
+	 */
+	public int cellsExplored() {
+		return cellsExplored;
+	} // end of cellsExplored()
+
+
+	/**
+	 * Wall-clock time taken by the solver.
+	 * @return The time in nanoseconds.
+	 */
+	public long nanos() {
+		return nanos;
+	} // end of nanos()
+
+
+	/**
+	 * Bytes allocated by the thread which called the solver, not counting the threads it used.
+	 * @return The number of bytes, -1 if unknown.
+	 */
+	public long allocatedBytes() {
+		return allocatedBytes;
+	} // end of allocatedBytes()
+
+} // end of class SolveResult
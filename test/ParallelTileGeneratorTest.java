@@ -0,0 +1,79 @@
+import java.util.*;
+
+import maze.*;
+import mazeGenerator.*;
+
+/**
+ *
+ * @author Huirong Huang
+ * @author Yangming An
+ * Check that ParallelTileGenerator makes perfect tunnel mazes, many seeded mazes at small tile sizes.
+ * Exits with status 1 on the first maze which is not perfect.
+ */
+class ParallelTileGeneratorTest {
+
+	/**
+	 * Main function of the test.
+	 * @param args Optional number of mazes of each kind, 1000 by default.
+	 */
+	public static void main(String[] args) {
+		int numMazes = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int failed = 0;
+
+		// small mazes with a few tunnels, and mazes of many tiles with about 30 tunnels
+		failed += check(numMazes, 4, 12, 5, 1);
+		failed += check(numMazes, 3, 12, 10, 2);
+		failed += check(numMazes, 8, 40, 30, 3);
+
+		System.out.println(failed == 0 ? "All mazes are perfect." : failed + " mazes are not perfect.");
+		System.exit(failed == 0 ? 0 : 1);
+	} // end of main()
+
+	/**
+	 * Generate seeded tunnel mazes and check each of them with PerfectCheck.
+	 * @param numMazes Number of mazes.
+	 * @param tileSize Size of a tile.
+	 * @param maxSize Largest number of rows and of columns of a maze.
+	 * @param maxTunnels Largest number of tunnels of a maze.
+	 * @param seed Seed of the sizes, the tunnels and the generators.
+	 * @return Number of mazes which are not perfect.
+	 */
+	protected static int check(int numMazes, int tileSize, int maxSize, int maxTunnels, long seed) {
+		Random random = new Random(seed);
+		int failed = 0;
+		for (int i = 0; i < numMazes; i++) {
+			int rows = 2 + random.nextInt(maxSize - 1);
+			int cols = 2 + random.nextInt(maxSize - 1);
+
+			// tunnels join distinct cells, every cell is the end of one tunnel at most
+			List<int[]> tunnels = new ArrayList<int[]>();
+			Set<Integer> used = new HashSet<Integer>();
+			int numTunnels = random.nextInt(Math.min(maxTunnels, rows * cols / 2) + 1);
+			while (tunnels.size() < numTunnels) {
+				int a = random.nextInt(rows * cols);
+				int b = random.nextInt(rows * cols);
+				if (a == b || used.contains(a) || used.contains(b))
+					continue;
+				used.add(a);
+				used.add(b);
+				tunnels.add(new int[] { a / cols, a % cols, b / cols, b % cols });
+			}
+
+			Maze maze = new TunnelMaze();
+			maze.isVisu = false;
+			maze.initMaze(rows, cols, 0, 0, rows - 1, cols - 1, tunnels);
+			new ParallelTileGenerator(RecursiveBacktrackerGenerator::new, tileSize, random.nextLong()).generateMaze(maze);
+
+			PerfectCheck check = new PerfectCheck(maze);
+			if (!check.isPerfect()) {
+				if (failed++ == 0)
+					System.out.println("Tile size " + tileSize + ", " + rows + " x " + cols + " with " + numTunnels
+							+ " tunnels: " + (check.outcome() == PerfectCheck.CYCLE ? "cycle" : "unreachable")
+							+ " at cell " + check.cell());
+			}
+		}
+		System.out.println("Tile size " + tileSize + ": " + failed + " of " + numMazes + " mazes are not perfect.");
+		return failed;
+	} // end of check()
+
+} // end of class ParallelTileGeneratorTest